@@ -0,0 +1,129 @@
+package com.rips7.benchmark;
+
+import com.rips7.day.AllDays;
+import com.rips7.day.ByteDay;
+import com.rips7.day.Day;
+import com.rips7.day.ParsedDay;
+import com.rips7.day.StreamingDay;
+import com.rips7.util.io.Input;
+import com.rips7.util.io.LineReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One benchmark per day and part. Run a subset with e.g.
+ * {@code java -jar target/benchmarks.jar DayBenchmark -p day=Day8,Day9 -p inputFile=/tmp/day8-large}.
+ * An empty {@code inputFile} uses the day's bundled resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayBenchmark {
+
+    @Param({"Day1", "Day2", "Day3", "Day4", "Day5", "Day6", "Day7", "Day8", "Day9", "Day10", "Day11", "Day12"})
+    public String day;
+
+    @Param({""})
+    public String inputFile;
+
+    private Day<?> instance;
+    private String input;
+    private Input bytes;
+    private Supplier<?> parse;
+    private Supplier<?> part1;
+    private Supplier<?> part2;
+
+    @Setup
+    public void setup() throws IOException {
+        instance = AllDays.getDay(day);
+        input = inputFile.isEmpty() ? instance.loadInput() : Files.readString(Path.of(inputFile));
+        bytes = loadBytes();
+        switch (instance) {
+            case ParsedDay<?, ?> parsedDay -> bind(parsedDay);
+            case StreamingDay<?> streamingDay -> {
+                // Streaming parts read as they go, so each invocation includes its pass over the input
+                parse = () -> input;
+                part1 = () -> {
+                    try (LineReader lines = openLines(streamingDay)) {
+                        return streamingDay.part1(lines);
+                    }
+                };
+                part2 = () -> {
+                    try (LineReader lines = openLines(streamingDay)) {
+                        return streamingDay.part2(lines);
+                    }
+                };
+            }
+            case ByteDay<?> byteDay -> {
+                parse = () -> bytes;
+                part1 = () -> byteDay.part1(bytes);
+                part2 = () -> byteDay.part2(bytes);
+            }
+            default -> {
+                parse = () -> input;
+                part1 = () -> instance.part1(input);
+                part2 = () -> instance.part2(input);
+            }
+        }
+    }
+
+    private <M> void bind(final ParsedDay<M, ?> parsedDay) {
+        final M model = parsedDay.parse(bytes);
+        parse = () -> parsedDay.parse(bytes);
+        part1 = () -> parsedDay.part1(model);
+        part2 = () -> parsedDay.part2(model);
+    }
+
+    private LineReader openLines(final StreamingDay<?> streamingDay) {
+        return inputFile.isEmpty() ? streamingDay.openLines() : LineReader.of(Path.of(inputFile));
+    }
+
+    @Benchmark
+    public Object load() throws IOException {
+        return inputFile.isEmpty() ? instance.loadInput() : Files.readString(Path.of(inputFile));
+    }
+
+    @Benchmark
+    public Input loadBytes() {
+        if (!inputFile.isEmpty()) {
+            return Input.ofPath(Path.of(inputFile));
+        }
+        return instance instanceof ByteDay<?> byteDay ? byteDay.loadBytes() : Input.ofResource(instance.inputFilename());
+    }
+
+    /**
+     * Parse stage of a {@link ParsedDay}; a no-op for days without one, whose parts still parse on their own.
+     */
+    @Benchmark
+    public Object parse() {
+        return parse.get();
+    }
+
+    @Benchmark
+    public Object part1() {
+        return part1.get();
+    }
+
+    @Benchmark
+    public Object part2() {
+        return part2.get();
+    }
+}
@@ -3,21 +3,104 @@ package com.rips7;
 import com.rips7.day.Day;
 import com.rips7.util.Util;
 import com.rips7.util.Util.AnsiColor;
+import com.rips7.util.Util.Measurement;
 import com.rips7.util.Util.TimedResult;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static com.rips7.day.AllDays.getAllDays;
+import static com.rips7.util.Util.formatDuration;
 import static com.rips7.util.Util.printColor;
 import static com.rips7.util.Util.time;
 
 public class Main {
+    private static final String USAGE =
+            "Usage: Main [--parallel] [--warmup=<runs, 0 or more>] [--iterations=<runs, 1 or more>]";
 
     public static void main(String[] args) {
+        final Measurement measurement = new Measurement(
+                intOption(args, "--warmup=", 0, 0),
+                intOption(args, "--iterations=", 1, 1));
+        if (Arrays.asList(args).contains("--parallel")) {
+            runParallel(measurement);
+        } else {
+            runSequential(measurement);
+        }
+    }
+
+    private static int intOption(final String[] args, final String prefix, final int defaultValue, final int min) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> parseIntOption(arg, prefix, min))
+                .reduce((first, second) -> second)
+                .orElse(defaultValue);
+    }
+
+    private static int parseIntOption(final String arg, final String prefix, final int min) {
+        try {
+            final int value = Integer.parseInt(arg.substring(prefix.length()));
+            if (value >= min) {
+                return value;
+            }
+        } catch (final NumberFormatException e) {
+            // Reported below
+        }
+        printColor(System.err, "Invalid option '%s'\n%s\n".formatted(arg, USAGE), AnsiColor.RED);
+        System.exit(2);
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private static void runSequential(final Measurement measurement) {
         TimedResult<?> result = time(() -> {
-            getAllDays().forEach(Day::run);
+            getAllDays().forEach(day -> day.run(System.out, measurement));
             return null;
         });
         printColor("\nRan all days\n", Util.AnsiColor.GREEN);
         printColor(result.timeInfo(), AnsiColor.YELLOW);
     }
 
-}
\ No newline at end of file
+    private static void runParallel(final Measurement measurement) {
+        final List<Day<?>> days = getAllDays().toList();
+        final int threads = Math.min(days.size(), Runtime.getRuntime().availableProcessors());
+
+        // Process-wide, so it also covers the pools and parallel streams the days start themselves
+        final com.sun.management.OperatingSystemMXBean osMXBean =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        final long cpuStart = osMXBean.getProcessCpuTime();
+        final TimedResult<Void> result = time(() -> {
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                final List<Future<String>> outputs = days.stream()
+                        .map(day -> executor.submit(() -> runBuffered(day, measurement)))
+                        .toList();
+                // Print in day order, as soon as each day (and all the ones before it) is done
+                for (final Future<String> output : outputs) {
+                    System.out.print(output.get());
+                }
+            } catch (final ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+            return null;
+        });
+        final long cpuNanos = osMXBean.getProcessCpuTime() - cpuStart;
+        printColor("\nRan all days in parallel on %s threads\n".formatted(threads), Util.AnsiColor.GREEN);
+        printColor("%s (wall clock), %s (process CPU)".formatted(result.timeInfo(), formatDuration(cpuNanos)),
+                AnsiColor.YELLOW);
+    }
+
+    private static String runBuffered(final Day<?> day, final Measurement measurement) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer)) {
+            day.run(out, measurement);
+        }
+        return buffer.toString();
+    }
+
+}
@@ -1,12 +1,12 @@
 package com.rips7.day;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 import java.util.stream.Stream;
 
 public class AllDays {
 
-    public static Stream<Day<?>> getAllDays() {
-        return Stream.of(
+    private static final List<Class<? extends Day<?>>> DAYS = List.of(
             Day1.class,
             Day2.class,
             Day3.class,
@@ -18,13 +18,25 @@ public class AllDays {
             Day9.class,
             Day10.class,
             Day11.class,
-            Day12.class)
-          .map(clazz -> {
-                    try {
-                        return clazz.getConstructor().newInstance();
-                    } catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-                        throw new RuntimeException(e);
-                    }
-                });
+            Day12.class);
+
+    public static Stream<Day<?>> getAllDays() {
+        return DAYS.stream().map(AllDays::newDay);
+    }
+
+    public static Day<?> getDay(final String name) {
+        return DAYS.stream()
+                .filter(clazz -> clazz.getSimpleName().equalsIgnoreCase(name))
+                .findFirst()
+                .map(AllDays::newDay)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown day '%s'".formatted(name)));
+    }
+
+    private static Day<?> newDay(final Class<? extends Day<?>> clazz) {
+        try {
+            return clazz.getConstructor().newInstance();
+        } catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.rips7.day;
+
+import com.rips7.util.io.Input;
+
+import java.io.PrintStream;
+
+import static com.rips7.util.Util.Measurement;
+import static com.rips7.util.Util.time;
+
+public interface ByteDay<T> extends Day<T> {
+
+    default T part1(@SuppressWarnings("unused") Input input) {
+        // Do nothing by default
+        return null;
+    }
+
+    default T part2(@SuppressWarnings("unused") Input input) {
+        // Do nothing by default
+        return null;
+    }
+
+    @Override
+    default T part1(final String input) {
+        return part1(Input.of(input));
+    }
+
+    @Override
+    default T part2(final String input) {
+        return part2(Input.of(input));
+    }
+
+    @Override
+    default void runParts(final PrintStream out, final Measurement measurement) {
+        final Input input = loadBytes();
+        Day.printPart(out, "Part 1", time(() -> part1(input), measurement));
+        Day.printPart(out, "Part 2", time(() -> part2(input), measurement));
+    }
+
+    default Input loadBytes() {
+        return Input.ofResource(inputFilename());
+    }
+
+}
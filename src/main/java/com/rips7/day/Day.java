@@ -2,6 +2,9 @@ package com.rips7.day;
 
 import com.rips7.util.Util;
 
+import java.io.PrintStream;
+
+import static com.rips7.util.Util.Measurement;
 import static com.rips7.util.Util.TimedResult;
 import static com.rips7.util.Util.printColor;
 import static com.rips7.util.Util.time;
@@ -19,25 +22,46 @@ public interface Day<T> {
     }
 
     default void run() {
-        final String input = loadInput();
+        run(System.out, Measurement.SINGLE);
+    }
 
-        System.out.printf("----- %s -----%n", getClass().getSimpleName());
+    default void run(final PrintStream out, final Measurement measurement) {
+        out.printf("----- %s -----%n", getClass().getSimpleName());
+        runParts(out, measurement);
+        report(out);
+        out.println("----------------");
+    }
 
-        final TimedResult<T> part1Res = time(() -> part1(input));
-        System.out.print("Part 1: ");
-        printColor("%s ".formatted(part1Res.res()), Util.AnsiColor.GREEN);
-        printColor("(%s)%n".formatted(part1Res.timeInfo()), Util.AnsiColor.YELLOW);
+    // Extra diagnostics printed after both parts, e.g. per-item timings
+    default void report(@SuppressWarnings("unused") final PrintStream out) {
+        // Nothing to report by default
+    }
 
-        final TimedResult<T> part2Res = time(() -> part2(input));
-        System.out.print("Part 2: ");
-        printColor("%s ".formatted(part2Res.res()), Util.AnsiColor.GREEN);
-        printColor("(%s)%n".formatted(part2Res.timeInfo()), Util.AnsiColor.YELLOW);
+    default void runParts(final PrintStream out, final Measurement measurement) {
+        final String input = loadInput();
+        printPart(out, "Part 1", time(() -> part1(input), measurement));
+        printPart(out, "Part 2", time(() -> part2(input), measurement));
+    }
+
+    static void printPart(final PrintStream out, final String label, final TimedResult<?> result) {
+        out.printf("%s: ", label);
+        printColor(out, "%s ".formatted(result.res()), Util.AnsiColor.GREEN);
+        printColor(out, "(%s) ".formatted(result.timeInfo()), Util.AnsiColor.YELLOW);
+        printColor(out, "[%s]%n".formatted(result.allocations().info()), Util.AnsiColor.CYAN);
+    }
+
+    static void printTime(final PrintStream out, final String label, final TimedResult<?> result) {
+        out.printf("%s: ", label);
+        printColor(out, "(%s) ".formatted(result.timeInfo()), Util.AnsiColor.YELLOW);
+        printColor(out, "[%s]%n".formatted(result.allocations().info()), Util.AnsiColor.CYAN);
+    }
 
-        System.out.println("----------------");
+    default String inputFilename() {
+        return "/%s/input".formatted(this.getClass().getSimpleName().toLowerCase());
     }
 
     default String loadInput() {
-        final String inputFilename = "/%s/input".formatted(this.getClass().getSimpleName().toLowerCase());
+        final String inputFilename = inputFilename();
         try {
             return Util.readResource(inputFilename);
         } catch (final NullPointerException e) {
@@ -45,4 +69,4 @@ public interface Day<T> {
         }
     }
 
-}
\ No newline at end of file
+}
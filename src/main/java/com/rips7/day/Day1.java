@@ -1,21 +1,24 @@
 package com.rips7.day;
 
-public class Day1 implements Day<Integer> {
+import com.rips7.util.io.Input;
+import com.rips7.util.io.LineReader;
+
+public class Day1 implements StreamingDay<Integer> {
 
 
     @Override
-    public Integer part1(String input) {
+    public Integer part1(LineReader lines) {
         final Dial dial = new Dial(0, 99, 50);
-        return (int) input.lines()
+        return (int) lines.lines()
             .map(Rotation::from)
             .filter(dial::rotateSimple)
             .count();
     }
 
     @Override
-    public Integer part2(String input) {
+    public Integer part2(LineReader lines) {
         final Dial dial = new Dial(0, 99, 50);
-        return input.lines()
+        return lines.lines()
             .map(Rotation::from)
             .mapToInt(dial::rotateClick)
             .sum();
@@ -31,13 +34,13 @@ public class Day1 implements Day<Integer> {
             return (dir == Direction.LEFT ? "L" : "R") + value;
         }
 
-        private static Rotation from(final String input) {
+        private static Rotation from(final Input.Line input) {
             final Direction dir = switch (input.charAt(0)) {
                 case 'L' -> Direction.LEFT;
                 case 'R' -> Direction.RIGHT;
                 default -> throw new IllegalArgumentException("Unknown rotation for " + input);
             };
-            final int value = Integer.parseInt(input.substring(1));
+            final int value = input.subSequence(1, input.length()).parseInt();
             return new Rotation(dir, value);
         }
     }
@@ -1,53 +1,162 @@
 package com.rips7.day;
 
-import com.rips7.util.algorithms.pathfinding.BFS;
+import com.rips7.util.Util.Timings;
+import com.rips7.util.io.Input;
+import com.rips7.util.maths.Maths;
+import com.rips7.util.maths.Maths.FractionFreeForm;
 import org.ojalgo.optimisation.Expression;
 import org.ojalgo.optimisation.ExpressionsBasedModel;
 import org.ojalgo.optimisation.Optimisation.Result;
 import org.ojalgo.optimisation.Variable;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
-public class Day10 implements Day<Long> {
+import static com.rips7.util.Util.currentThreadAllocatedBytes;
+import static com.rips7.util.Util.formatBytes;
+import static com.rips7.util.Util.formatDuration;
+
+public class Day10 implements ParsedDay<List<Day10.Machine>, Long> {
+    private static final long MAX_EXACT_SEARCH_SPACE = 1L << 24;
+
+    private final int parallelism;
+    // Machines whose exact search would visit more candidates than this go to the LP solver
+    private final long maxExactSearchSpace;
+    // Per-machine solve times of the last part 2 run, in machine order, and how many needed no LP solver
+    private volatile long[] joltageSolveNanos;
+    private volatile int joltageExactSolves;
+    private volatile int joltageThreads;
+    // Allocated on the solver pool's threads, which the timed run's allocation figures leave out
+    private volatile long joltagePoolAllocatedBytes;
+
+    public Day10() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public Day10(final int parallelism) {
+        this(parallelism, MAX_EXACT_SEARCH_SPACE);
+    }
+
+    Day10(final int parallelism, final long maxExactSearchSpace) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        this.maxExactSearchSpace = maxExactSearchSpace;
+    }
 
     @Override
-    public Long part1(String input) {
+    public List<Machine> parse(Input input) {
         return input.lines()
                 .map(Machine::parse)
+                .toList();
+    }
+
+    @Override
+    public Long part1(List<Machine> machines) {
+        return machines.stream()
                 .mapToLong(Machine::fixIndicators)
                 .sum();
     }
 
     @Override
-    public Long part2(String input) {
-        return input.lines()
-                .map(Machine::parse)
-                .mapToLong(Machine::fixJoltage)
-                .sum();
+    public Long part2(List<Machine> machines) {
+        final long[] presses = new long[machines.size()];
+        final long[] solveNanos = new long[machines.size()];
+        final AtomicInteger exactSolves = new AtomicInteger();
+        final LongAdder poolAllocatedBytes = new LongAdder();
+        final int threads = Math.max(1, Math.min(parallelism, machines.size()));
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            final List<Future<?>> solved = IntStream.range(0, machines.size())
+                    .<Future<?>>mapToObj(i -> executor.submit(() -> {
+                        final Machine machine = machines.get(i);
+                        final long allocatedBefore = currentThreadAllocatedBytes();
+                        final long start = System.nanoTime();
+                        final OptionalLong exact = machine.fixJoltageExactly(maxExactSearchSpace);
+                        if (exact.isPresent()) {
+                            presses[i] = exact.getAsLong();
+                            exactSolves.incrementAndGet();
+                        } else {
+                            presses[i] = machine.fixJoltage();
+                        }
+                        solveNanos[i] = System.nanoTime() - start;
+                        poolAllocatedBytes.add(currentThreadAllocatedBytes() - allocatedBefore);
+                    }))
+                    .toList();
+            for (final Future<?> future : solved) {
+                future.get();
+            }
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        joltageSolveNanos = solveNanos;
+        joltageExactSolves = exactSolves.get();
+        joltageThreads = threads;
+        joltagePoolAllocatedBytes = poolAllocatedBytes.sum();
+        return Arrays.stream(presses).sum();
     }
 
-    private record IndicatorState(List<Boolean> indicators) {
-        private static IndicatorState parse(final String input) {
-            return new IndicatorState(input.chars()
-                    .mapToObj(c -> c == '#')
-                    .toList());
+    @Override
+    public void report(final PrintStream out) {
+        final long[] solveNanos = joltageSolveNanos;
+        if (solveNanos == null || solveNanos.length == 0) {
+            return;
+        }
+        int slowest = 0;
+        for (int i = 1; i < solveNanos.length; i++) {
+            if (solveNanos[i] > solveNanos[slowest]) {
+                slowest = i;
+            }
         }
+        final Timings timings = new Timings(solveNanos);
+        out.printf("Joltage solves: %s machines (%s exact, %s LP), %s %s allocating %s; "
+                        + "median %s, p90 %s, p99 %s, max %s (machine %s)%n",
+                solveNanos.length, joltageExactSolves, solveNanos.length - joltageExactSolves,
+                joltageThreads, joltageThreads == 1 ? "thread" : "threads",
+                formatBytes(joltagePoolAllocatedBytes), formatDuration(timings.median()),
+                formatDuration(timings.percentile(90)), formatDuration(timings.p99()),
+                formatDuration(solveNanos[slowest]), slowest);
+    }
 
-        private static IndicatorState startState(final int n) {
-            return new IndicatorState(IntStream.range(0, n)
-                    .mapToObj(i -> false)
-                    .toList());
+    // Indicator i is bit i of the state, so a machine has at most 64 indicators
+    private record IndicatorState(int size, long bits) {
+        private static IndicatorState parse(final String input) {
+            if (input.length() > Long.SIZE) {
+                throw new IllegalArgumentException("More than %s indicators: %s".formatted(Long.SIZE, input));
+            }
+            long bits = 0;
+            for (int i = 0; i < input.length(); i++) {
+                if (input.charAt(i) == '#') {
+                    bits |= 1L << i;
+                }
+            }
+            return new IndicatorState(input.length(), bits);
         }
 
-        private IndicatorState toggle(final List<Integer> indices) {
-            return new IndicatorState(IntStream.range(0, indicators.size())
-                    .mapToObj(i -> indices.contains(i) != indicators.get(i))
-                    .toList());
+        private long toggleMask(final List<Integer> indices) {
+            long mask = 0;
+            for (final int i : indices) {
+                if (i < 0 || i >= size) {
+                    throw new IllegalArgumentException("No indicator %s among %s".formatted(i, size));
+                }
+                mask |= 1L << i;
+            }
+            return mask;
         }
     }
 
@@ -61,12 +170,12 @@ public class Day10 implements Day<Long> {
         }
     }
 
-    private record Machine(List<List<Integer>> buttons, IndicatorState targetIndicatorState, JoltageState targetJoltageState) {
+    record Machine(List<List<Integer>> buttons, IndicatorState targetIndicatorState, JoltageState targetJoltageState) {
         private static final Pattern BUTTONS_PATTERN = Pattern.compile("\\((.*?)\\)");
         private static final Pattern INDICATOR_PATTERN = Pattern.compile("\\[(.*?)]");
         private static final Pattern JOLTAGE_PATTERN = Pattern.compile("\\{(.*?)}");
 
-        private static Machine parse(final String input) {
+        private static Machine parse(final CharSequence input) {
             final List<List<Integer>> buttons = new ArrayList<>();
             final Matcher buttonsMatcher = BUTTONS_PATTERN.matcher(input);
             while (buttonsMatcher.find()) {
@@ -92,16 +201,52 @@ public class Day10 implements Day<Long> {
             return new Machine(buttons, targetIndicatorState, targetJoltageState);
         }
 
+        // Pressing a button twice undoes it, so this is the minimum-weight solution of a linear system over GF(2)
         private long fixIndicators() {
-            final List<IndicatorState> path = new BFS<IndicatorState>().run(
-                    IndicatorState.startState(targetIndicatorState.indicators().size()),
-                    targetIndicatorState,
-                    indicatorState -> buttons.stream()
-                            .map(indicatorState::toggle)
-                            .toList());
-            return path.size() - 1;
+            final long[] toggleMasks = buttons.stream()
+                    .mapToLong(targetIndicatorState::toggleMask)
+                    .toArray();
+            return Long.bitCount(Maths.solveMinWeightGF2(toggleMasks, targetIndicatorState.bits()));
+        }
+
+        /**
+         * Solves presses * buttons = joltage exactly in integers: fraction-free elimination leaves a few free buttons,
+         * each bounded by the lowest counter it touches, and those are searched. Empty if that search space is larger
+         * than maxSearchSpace, or the numbers overflow, so that the LP solver takes over.
+         */
+        private OptionalLong fixJoltageExactly(final long maxSearchSpace) {
+            final int counters = targetJoltageState.joltage().size();
+            final long[][] a = new long[counters][buttons.size()];
+            final long[] b = new long[counters];
+            final long[] upperBounds = new long[buttons.size()];
+            for (int i = 0; i < counters; i++) {
+                b[i] = targetJoltageState.joltage().get(i);
+            }
+            for (int j = 0; j < buttons.size(); j++) {
+                long bound = Long.MAX_VALUE;
+                for (final int counter : buttons.get(j)) {
+                    a[counter][j] = 1;
+                    bound = Math.min(bound, b[counter]);
+                }
+                upperBounds[j] = bound == Long.MAX_VALUE ? 0 : bound;
+            }
+
+            try {
+                final FractionFreeForm form = Maths.reduceAugmented(a, b);
+                if (Maths.searchSpace(form, upperBounds) > maxSearchSpace) {
+                    return OptionalLong.empty();
+                }
+                final long[] presses = Maths.minimiseIntegerSolution(form, upperBounds);
+                if (presses == null) {
+                    throw new IllegalStateException("No solution found for joltage");
+                }
+                return OptionalLong.of(Arrays.stream(presses).sum());
+            } catch (final ArithmeticException overflow) {
+                return OptionalLong.empty();
+            }
         }
 
+        // Presses per button, constrained to hit every counter's level
         private long fixJoltage() {
             final ExpressionsBasedModel model = new ExpressionsBasedModel();
             final Variable[] vars = IntStream.range(0, buttons.size())
@@ -127,7 +272,7 @@ public class Day10 implements Day<Long> {
                 throw new IllegalStateException("No solution found for joltage");
             }
 
-            return IntStream.range(0, vars.length)
+            return IntStream.range(0, buttons.size())
                     .mapToLong(i -> Math.round(result.doubleValue(i)))
                     .sum();
         }
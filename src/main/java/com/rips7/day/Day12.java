@@ -1,42 +1,51 @@
 package com.rips7.day;
 
 import com.rips7.util.Util.Position;
+import com.rips7.util.io.Input;
+import com.rips7.util.io.LineReader;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.IntStream;
 
-public class Day12 implements Day<Long> {
+public class Day12 implements StreamingDay<Long> {
 
+    // The presents come first, as blank-line separated blocks; every line after them is an independent region
     @Override
-    public Long part1(String input) {
-        final ChristmasTreeFarm farm = ChristmasTreeFarm.parse(input);
-        return farm.regions.stream()
-          .filter(region -> region.fits(farm.presents))
-          .count();
+    public Long part1(LineReader lines) {
+        final List<Present> presents = new ArrayList<>();
+        final StringBuilder block = new StringBuilder();
+        long fitting = 0;
+        for (Input.Line line = lines.readLine(); line != null; line = lines.readLine()) {
+            if (Region.isRegion(line)) {
+                addPresent(presents, block);
+                if (Region.parse(line.toString()).fits(presents)) {
+                    fitting++;
+                }
+            } else if (line.length() == 0) {
+                addPresent(presents, block);
+            } else {
+                block.append(block.isEmpty() ? "" : "\n").append(line);
+            }
+        }
+        return fitting;
     }
 
+    private void addPresent(final List<Present> presents, final StringBuilder block) {
+        if (!block.isEmpty()) {
+            presents.add(Present.parse(block.toString()));
+            block.setLength(0);
+        }
+    }
 
     @Override
-    public Long part2(String input) {
+    public Long part2(LineReader lines) {
         return 0L;
     }
 
-    private record ChristmasTreeFarm(List<Present> presents, List<Region> regions) {
-        private static ChristmasTreeFarm parse(final String input) {
-            final String[] blocks = input.split("\n\n");
-            final List<Present> presents = IntStream.range(0, blocks.length - 1)
-              .mapToObj(i -> Present.parse(blocks[i]))
-              .toList();
-            final List<Region> regions = blocks[blocks.length - 1].lines()
-              .map(Region::parse)
-              .toList();
-            return new ChristmasTreeFarm(presents, regions);
-        }
-    }
-
     private record Present(int id, Set<Position> points) {
         private static Present parse(final String input) {
             final String[] lines = input.split("\n");
@@ -59,6 +68,12 @@ public class Day12 implements Day<Long> {
     }
 
     private record Region(int width, int height, List<Integer> presentCounts) {
+        // "WxH: counts"; present headers ("N:") and shape rows never contain an 'x'
+        private static boolean isRegion(final Input.Line line) {
+            final int x = line.indexOf('x');
+            return x != -1 && line.indexOf(':', x) != -1;
+        }
+
         private static Region parse(final String input) {
             final String[] parts = input.split(": ");
             final String[] dimensions = parts[0].split("x");
@@ -1,31 +1,37 @@
 package com.rips7.day;
 
+import com.rips7.util.io.Input;
+import com.rips7.util.io.LineReader;
+
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class Day3 implements Day<Long> {
+public class Day3 implements StreamingDay<Long> {
 
     @Override
-    public Long part1(String input) {
-        return input.lines()
+    public Long part1(LineReader lines) {
+        return lines.lines()
             .map(BatteryRank::parse)
             .mapToLong(rank -> rank.findLargestJoltageOf(2))
             .sum();
     }
 
     @Override
-    public Long part2(String input) {
-        return input.lines()
+    public Long part2(LineReader lines) {
+        return lines.lines()
             .map(BatteryRank::parse)
             .mapToLong(rank -> rank.findLargestJoltageOf(12))
             .sum();
     }
 
-    private record BatteryRank(Integer[] batteries) {
-        private static BatteryRank parse(final String input) {
-            return new BatteryRank(Arrays.stream(input.split("")).map(Integer::parseInt).toArray(Integer[]::new));
+    private record BatteryRank(int[] batteries) {
+        private static BatteryRank parse(final Input.Line input) {
+            final int[] batteries = new int[input.length()];
+            for (int i = 0; i < batteries.length; i++) {
+                batteries[i] = input.byteAt(i) - '0';
+            }
+            return new BatteryRank(batteries);
         }
 
         private long findLargestJoltageOf(int requiredBatteries) {
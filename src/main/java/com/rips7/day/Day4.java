@@ -1,64 +1,30 @@
 package com.rips7.day;
 
-import com.rips7.util.Util.Grid;
-
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import com.rips7.util.CharGrid;
+import com.rips7.util.Kernel;
 
 public class Day4 implements Day<Integer> {
+    private static final char GRID_ROLL = '@';
+    private static final char GRID_EMPTY = '.';
 
     @Override
     public Integer part1(String input) {
-        final Grid<Cell> grid = parseGrid(input);
-        final AtomicInteger count = new AtomicInteger();
-        grid.convolutionFull((cell, neighbors) -> {
-            if (neighbors.stream().filter(Cell::isRoll).count() < 4) {
-                count.incrementAndGet();
+        final CharGrid grid = CharGrid.of(input, GRID_EMPTY);
+        final int[] neighbors = grid.countNeighborsAll(Kernel.EIGHT, GRID_ROLL);
+        int count = 0;
+        for (int r = 0; r < grid.rows(); r++) {
+            for (int c = 0; c < grid.cols(); c++) {
+                if (grid.get(r, c) == GRID_ROLL && neighbors[r * grid.cols() + c] < 4) {
+                    count++;
+                }
             }
-        }, Cell::isRoll);
-        return count.get();
+        }
+        return count;
     }
 
     @Override
     public Integer part2(String input) {
-        final Grid<Cell> grid = parseGrid(input);
-        final AtomicInteger removedCount = new AtomicInteger();
-        final AtomicBoolean changed = new AtomicBoolean(true);
-        while (changed.get()) {
-            changed.set(false);
-            grid.convolutionFull((cell, neighbors) -> {
-                if (neighbors.stream().filter(Cell::isRoll).count() < 4) {
-                    cell.setIsRoll(false);
-                    removedCount.incrementAndGet();
-                    changed.set(true);
-                }
-            }, Cell::isRoll);
-        }
-        return removedCount.get();
-    }
-
-    private static Grid<Cell> parseGrid(final String input) {
-        final Cell[][] grid = input.lines()
-            .map(line -> line.chars()
-                .mapToObj(c -> Cell.of((char) c))
-                .toArray(Cell[]::new))
-            .toArray(Cell[][]::new);
-        return Grid.of(grid);
-    }
-
-    private static final class Cell {
-        private boolean isRoll;
-
-        private static Cell of(final char c) {
-            return new Cell(c == '@');
-        }
-
-        public Cell(final boolean isRoll) {
-            this.isRoll = isRoll;
-        }
-
-        private boolean isRoll() { return isRoll; }
-
-        public void setIsRoll(boolean roll) { isRoll = roll; }
+        // Removing a roll only lowers its neighbours' counts, so the removal order does not change the total
+        return CharGrid.of(input, GRID_EMPTY).peel(GRID_ROLL, GRID_EMPTY, 4);
     }
 }
@@ -1,15 +1,17 @@
 package com.rips7.day;
 
+import com.rips7.util.io.Input;
+
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.BiConsumer;
 
-public class Day5 implements Day<Long> {
+public class Day5 implements ParsedDay<Day5.Inventory, Long> {
 
     @Override
-    public Long part1(String input) {
-        final String[] sections = input.split("\\R\\R", 2);
+    public Inventory parse(Input input) {
+        final String[] sections = input.asString().split("\\R\\R", 2);
 
         final List<Range> flattenedRanges = sections[0].lines()
                 .map(Range::parse)
@@ -17,27 +19,29 @@ public class Day5 implements Day<Long> {
                 .sorted(Comparator.comparingLong(Range::startId))
                 .collect(ArrayList::new, Range.rangeMerger(), ArrayList::addAll);
 
-        return sections[1].lines()
+        final List<Long> ids = sections[1].lines()
                 .map(Long::parseLong)
-                .filter(id -> flattenedRanges.stream().anyMatch(range -> range.contains(id)))
-                .count();
+                .toList();
+
+        return new Inventory(flattenedRanges, ids);
     }
 
     @Override
-    public Long part2(String input) {
-        final String[] sections = input.split("\\R\\R", 2);
-
-        final List<Range> flattenedRanges = sections[0].lines()
-                .map(Range::parse)
-                // Sort and merge overlapping ranges to avoid unnecessary comparisons
-                .sorted(Comparator.comparingLong(Range::startId))
-                .collect(ArrayList::new, Range.rangeMerger(), ArrayList::addAll);
+    public Long part1(Inventory inventory) {
+        return inventory.ids().stream()
+                .filter(id -> inventory.freshRanges().stream().anyMatch(range -> range.contains(id)))
+                .count();
+    }
 
-        return flattenedRanges.stream()
+    @Override
+    public Long part2(Inventory inventory) {
+        return inventory.freshRanges().stream()
                 .mapToLong(Range::numIds)
                 .sum();
     }
 
+    record Inventory(List<Range> freshRanges, List<Long> ids) {}
+
     private record Range(long startId, long endId) {
         private static Range parse(final String input) {
             final String[] parts = input.split("-");
@@ -1,89 +1,90 @@
 package com.rips7.day;
 
-import com.rips7.util.Util.Grid;
-import com.rips7.util.Util.Offset;
-import com.rips7.util.Util.Position;
-import com.rips7.util.algorithms.pathfinding.DFS;
+import com.rips7.util.io.Input;
+import com.rips7.util.io.LineReader;
 
-import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Arrays;
 
-public class Day7 implements Day<Long> {
+public class Day7 implements StreamingDay<Long> {
     private static final char GRID_START = 'S';
-    private static final char GRID_EMPTY = '.';
     private static final char GRID_SPLIT = '^';
-    private static final char GRID_END = '$';
 
     @Override
-    public Long part1(String input) {
-        return countSplits(parseGrid(input));
+    public Long part1(LineReader lines) {
+        return simulate(lines).splits();
     }
 
     @Override
-    public Long part2(String input) {
-        return countTimelines(parseGrid(input));
+    public Long part2(LineReader lines) {
+        return simulate(lines).timelines();
     }
 
-    private Grid<Character> parseGrid(final String input) {
-        final Character[][] grid = input.lines()
-          .map(line -> line.chars()
-            .mapToObj(c -> (char) c)
-            .toArray(Character[]::new))
-          .toArray(Character[][]::new);
-        return Grid.of(grid, GRID_END);
+    private Beams simulate(final LineReader lines) {
+        final Beams beams = new Beams();
+        lines.forEachLine(beams::accept);
+        if (!beams.started()) {
+            throw new RuntimeException("Cannot find %s in the manifold".formatted(GRID_START));
+        }
+        return beams;
     }
 
-    private long countSplits(final Grid<Character> grid) {
-        final AtomicLong splits = new AtomicLong();
-
-        new DFS<Position>().run(grid.find(GRID_START), pos ->
-                switch (grid.get(pos)) {
-                    case GRID_END -> List.of();
-                    case GRID_START, GRID_EMPTY -> List.of(pos.apply(Offset.DOWN));
-                    case GRID_SPLIT -> {
-                        splits.incrementAndGet();
-                        yield List.of(pos.apply(Offset.LEFT), pos.apply(Offset.RIGHT));
-                    }
-                    default -> throw new RuntimeException("Shouldn't happen");
-                });
+    /**
+     * Streams the manifold one row at a time, keeping only the number of timelines with a beam in each column of the
+     * latest row. A splitter below a beam sends it to both sides, and beams that leave the sides are lost. Memory is
+     * O(width) however tall the manifold is.
+     */
+    private static final class Beams {
+        private long[] current;
+        private long[] next;
+        private long splits;
 
-        return splits.get();
-    }
+        private boolean started() {
+            return current != null;
+        }
 
-    private long countTimelines(final Grid<Character> grid) {
-        // Dynamic programming
-        final Position start = grid.find(GRID_START);
-        final Long[][] memo = new Long[grid.rows()][grid.cols()];
-        return countTimelines(grid, start, memo);
-    }
+        private void accept(final Input.Line line) {
+            if (current == null) {
+                final int start = line.indexOf(GRID_START);
+                if (start != -1) {
+                    current = new long[line.length()];
+                    next = new long[line.length()];
+                    current[start] = 1;
+                }
+                return;
+            }
 
-    private long countTimelines(final Grid<Character> grid, final Position position, final Long[][] memo) {
-        // If it goes off the sides of the manifold, the path is invalid
-        if (!grid.isWithin(position)) {
-            return 0;
-        }
-        // If it reaches the last row, the path is valid
-        if (position.x() == grid.cols() - 1) {
-            return 1;
+            Arrays.fill(next, 0);
+            final int width = current.length;
+            for (int col = 0; col < width; col++) {
+                final long timelines = current[col];
+                if (timelines == 0) {
+                    continue;
+                }
+                if (col < line.length() && line.byteAt(col) == GRID_SPLIT) {
+                    splits++;
+                    if (col > 0) {
+                        next[col - 1] += timelines;
+                    }
+                    if (col + 1 < width) {
+                        next[col + 1] += timelines;
+                    }
+                } else {
+                    next[col] += timelines;
+                }
+            }
+            final long[] swap = current;
+            current = next;
+            next = swap;
         }
-        // If we have already calculated the timelines for the current position, return it
-        if (memo[position.x()][position.y()] != null) {
-            return memo[position.x()][position.y()];
+
+        // Every splitter reached by a beam, counted once
+        private long splits() {
+            return splits;
         }
-        // Determine next position and calculate total paths
-        final char next = grid.get(position.apply(Offset.DOWN));
-        final long totalPaths;
-        if (next == GRID_SPLIT) {
-            // If the path splits, we calculate the total paths as the sum of left and right paths
-            final long pathsLeft = countTimelines(grid, position.apply(Offset.LEFT), memo);
-            final long pathsRight = countTimelines(grid, position.apply(Offset.RIGHT), memo);
-            totalPaths = pathsLeft + pathsRight;
-        } else {
-            // Move further down the path
-            totalPaths = countTimelines(grid, position.apply(Offset.DOWN), memo);
+
+        // Timelines still in the manifold after its last row
+        private long timelines() {
+            return Arrays.stream(current).sum();
         }
-        // Memoize the result and return it
-        memo[position.x()][position.y()] = totalPaths;
-        return totalPaths;
     }
 }
@@ -1,95 +1,77 @@
 package com.rips7.day;
 
-import com.rips7.util.Util.Pair;
-import com.rips7.util.algorithms.graphs.DisjointSetUnion;
-import com.rips7.util.maths.Maths.Vector3D;
-
-import java.util.Comparator;
+import com.rips7.util.algorithms.graphs.ClosestPairs.Edges;
+import com.rips7.util.algorithms.graphs.DenseMST;
+import com.rips7.util.algorithms.graphs.DenseMST.SpanningTree;
+import com.rips7.util.algorithms.graphs.IntDisjointSetUnion;
+import com.rips7.util.algorithms.spatial.KdTree3D;
+import com.rips7.util.io.Input;
+
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.IntStream;
 
-public class Day8 implements Day<Long> {
+public class Day8 implements ParsedDay<Day8.Playground, Long> {
 
     private static final int CONNECTIONS = 1000;
 
     @Override
-    public Long part1(String input) {
-        final List<Vector3D<Long>> boxes = parseBoxes(input);
+    public Playground parse(Input input) {
+        final List<Input.Line> lines = input.lines().toList();
+        final long[] x = new long[lines.size()];
+        final long[] y = new long[lines.size()];
+        final long[] z = new long[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            final List<Input.Line> parts = lines.get(i).fields(',');
+            x[i] = parts.get(0).parseLong();
+            y[i] = parts.get(1).parseLong();
+            z[i] = parts.get(2).parseLong();
+        }
+        return new Playground(x, y, z, new KdTree3D(x, y, z));
+    }
 
-        final List<Set<Vector3D<Long>>> circuits = connectCircuits(boxes);
+    @Override
+    public Long part1(Playground playground) {
+        final IntDisjointSetUnion circuits = connectCircuits(playground);
 
-        return circuits.stream()
-                .limit(3)
-                .mapToLong(Set::size)
+        return Arrays.stream(circuits.topComponentSizes(3))
+                .asLongStream()
                 .reduce(1L, (a, b) -> a * b);
     }
 
     @Override
-    public Long part2(String input) {
-        final List<Vector3D<Long>> boxes = parseBoxes(input);
+    public Long part2(Playground playground) {
+        // The connection that joins everything into a single circuit is the longest edge of the minimum spanning tree
+        final SpanningTree tree = DenseMST.boruvka(
+                playground.size(), playground.index().nearestForeign(), playground::distSq);
+        final int lastEdge = tree.longestEdge();
 
-        final Pair<Vector3D<Long>, Vector3D<Long>> lastTwoBoxes = connectSingleCircuit(boxes);
-
-        return lastTwoBoxes.left().x() * lastTwoBoxes.right().x();
-    }
-
-    private List<Vector3D<Long>> parseBoxes(final String input) {
-        return input.lines()
-                .map(line -> line.split(","))
-                .map(parts -> Vector3D.of(
-                        Long.parseLong(parts[0]),
-                        Long.parseLong(parts[1]),
-                        Long.parseLong(parts[2])))
-                .toList();
+        return playground.x()[tree.u()[lastEdge]] * playground.x()[tree.v()[lastEdge]];
     }
 
-    private List<Set<Vector3D<Long>>> connectCircuits(final List<Vector3D<Long>> boxes) {
-        final DisjointSetUnion<Vector3D<Long>> dsu = new DisjointSetUnion<>(boxes);
+    private IntDisjointSetUnion connectCircuits(final Playground playground) {
+        final IntDisjointSetUnion dsu = new IntDisjointSetUnion(playground.size());
 
-        final List<Edge> edges = getEdges(boxes);
+        // Only the closest CONNECTIONS pairs are needed, so select them instead of sorting every pair
+        final Edges edges = playground.index().closestPairs(CONNECTIONS);
 
-        for (int i = 0; i < CONNECTIONS && i < edges.size(); i++) {
-            final Edge edge = edges.get(i);
-            dsu.union(edge.u(), edge.v());
+        for (int i = 0; i < edges.size(); i++) {
+            dsu.union(edges.u()[i], edges.v()[i]);
         }
 
-        return dsu.getSets().stream()
-                .sorted(Comparator.<Set<Vector3D<Long>>>comparingInt(Set::size).reversed())
-                .toList();
-    }
-
-    private Pair<Vector3D<Long>, Vector3D<Long>> connectSingleCircuit(final List<Vector3D<Long>> boxes) {
-        final DisjointSetUnion<Vector3D<Long>> dsu = new DisjointSetUnion<>(boxes);
-
-        final List<Edge> edges = getEdges(boxes);
-
-        int i = 0;
-        Edge edge;
-        do {
-            edge = edges.get(i++);
-            dsu.union(edge.u(), edge.v());
-        } while(!dsu.isFullyConnected());
-
-        return Pair.of(edge.u(), edge.v());
+        return dsu;
     }
 
-    private List<Edge> getEdges(final List<Vector3D<Long>> boxes) {
-        return IntStream.range(0, boxes.size() - 1)
-                .mapToObj(i -> IntStream.range(i + 1, boxes.size())
-                        .mapToObj(j -> new Edge(boxes.get(i), boxes.get(j), distSq(boxes.get(i), boxes.get(j)))))
-                .flatMap(Function.identity())
-                .sorted(Comparator.comparingLong(Edge::distanceSq))
-                .toList();
-    }
+    // Junction box coordinates, one array per axis, and a spatial index over them
+    record Playground(long[] x, long[] y, long[] z, KdTree3D index) {
+        private int size() {
+            return x.length;
+        }
 
-    private long distSq(final Vector3D<Long> box1, final Vector3D<Long> box2) {
-        final long distX = box1.x() - box2.x();
-        final long distY = box1.y() - box2.y();
-        final long distZ = box1.z() - box2.z();
-        return distX * distX + distY * distY + distZ * distZ;
+        private long distSq(final int i, final int j) {
+            final long distX = x[i] - x[j];
+            final long distY = y[i] - y[j];
+            final long distZ = z[i] - z[j];
+            return distX * distX + distY * distY + distZ * distZ;
+        }
     }
-
-    private record Edge(Vector3D<Long> u, Vector3D<Long> v, long distanceSq) {}
 }
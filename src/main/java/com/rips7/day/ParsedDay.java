@@ -0,0 +1,48 @@
+package com.rips7.day;
+
+import com.rips7.util.io.Input;
+
+import java.io.PrintStream;
+
+import static com.rips7.util.Util.Measurement;
+import static com.rips7.util.Util.TimedResult;
+import static com.rips7.util.Util.time;
+
+/**
+ * A day whose input is parsed once into a model that both parts share. Parts must not mutate the model.
+ */
+public interface ParsedDay<M, T> extends ByteDay<T> {
+
+    M parse(Input input);
+
+    default T part1(@SuppressWarnings("unused") M model) {
+        // Do nothing by default
+        return null;
+    }
+
+    default T part2(@SuppressWarnings("unused") M model) {
+        // Do nothing by default
+        return null;
+    }
+
+    @Override
+    default T part1(final Input input) {
+        return part1(parse(input));
+    }
+
+    @Override
+    default T part2(final Input input) {
+        return part2(parse(input));
+    }
+
+    @Override
+    default void runParts(final PrintStream out, final Measurement measurement) {
+        final Input input = loadBytes();
+        final TimedResult<M> parsed = time(() -> parse(input), measurement);
+        Day.printTime(out, "Parse", parsed);
+        final M model = parsed.res();
+        Day.printPart(out, "Part 1", time(() -> part1(model), measurement));
+        Day.printPart(out, "Part 2", time(() -> part2(model), measurement));
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.rips7.day;
+
+import com.rips7.util.io.LineReader;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.rips7.util.Util.Measurement;
+import static com.rips7.util.Util.time;
+
+/**
+ * A day whose parts handle the input one line at a time. Each part reads its own pass over the input through a
+ * {@link LineReader}, so memory stays constant however large the input is, and reading is timed with the part.
+ */
+public interface StreamingDay<T> extends Day<T> {
+
+    default T part1(@SuppressWarnings("unused") LineReader lines) {
+        // Do nothing by default
+        return null;
+    }
+
+    default T part2(@SuppressWarnings("unused") LineReader lines) {
+        // Do nothing by default
+        return null;
+    }
+
+    @Override
+    default T part1(final String input) {
+        try (LineReader lines = LineReader.of(input.getBytes(StandardCharsets.UTF_8))) {
+            return part1(lines);
+        }
+    }
+
+    @Override
+    default T part2(final String input) {
+        try (LineReader lines = LineReader.of(input.getBytes(StandardCharsets.UTF_8))) {
+            return part2(lines);
+        }
+    }
+
+    @Override
+    default void runParts(final PrintStream out, final Measurement measurement) {
+        Day.printPart(out, "Part 1", time(() -> {
+            try (LineReader lines = openLines()) {
+                return part1(lines);
+            }
+        }, measurement));
+        Day.printPart(out, "Part 2", time(() -> {
+            try (LineReader lines = openLines()) {
+                return part2(lines);
+            }
+        }, measurement));
+    }
+
+    default LineReader openLines() {
+        return LineReader.ofResource(inputFilename());
+    }
+
+}
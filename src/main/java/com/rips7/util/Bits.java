@@ -0,0 +1,79 @@
+package com.rips7.util;
+
+/**
+ * Static helpers for bitsets packed into {@code long[]} words.
+ */
+@SuppressWarnings("unused")
+public final class Bits {
+
+    private Bits() {}
+
+    public static long[] newBitSet(final int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    public static boolean get(final long[] bits, final int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public static void set(final long[] bits, final int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    public static void clear(final long[] bits, final int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    // Sets the bit and returns whether it was previously clear
+    public static boolean add(final long[] bits, final int index) {
+        final long mask = 1L << index;
+        final long word = bits[index >>> 6];
+        bits[index >>> 6] = word | mask;
+        return (word & mask) == 0;
+    }
+
+    // Sets bits [from, to) a word at a time
+    public static void setRange(final long[] bits, final int from, final int to) {
+        if (from >= to) {
+            return;
+        }
+        final int firstWord = from >>> 6;
+        final int lastWord = (to - 1) >>> 6;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            bits[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        bits[firstWord] |= firstMask;
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            bits[word] = -1L;
+        }
+        bits[lastWord] |= lastMask;
+    }
+
+    public static int cardinality(final long[] bits) {
+        int count = 0;
+        for (final long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public static int nextSetBit(final long[] bits, final int from) {
+        int wordIndex = from >>> 6;
+        if (wordIndex >= bits.length) {
+            return -1;
+        }
+        long word = bits[wordIndex] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == bits.length) {
+                return -1;
+            }
+            word = bits[wordIndex];
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.rips7.util;
+
+import com.rips7.util.Util.Offset;
+import com.rips7.util.Util.Position;
+import com.rips7.util.io.Input;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A grid of single-byte characters stored row-major in one {@code byte[]}. Rows are {@code stride} bytes apart and
+ * may be surrounded by a border of sentinel cells, so neighbour reads up to {@code border} cells away from the grid
+ * can use raw indices without bounds checks. Reads through {@link #get(int, int)} outside the grid return the
+ * sentinel value.
+ */
+@SuppressWarnings("unused")
+public final class CharGrid {
+    private final byte[] data;
+    private final int rows;
+    private final int cols;
+    private final int stride;
+    private final int border;
+    private final int origin;
+    private final byte outside;
+
+    private CharGrid(final byte[] data, final int rows, final int cols, final int stride, final int border,
+                     final int origin, final byte outside) {
+        this.data = data;
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = stride;
+        this.border = border;
+        this.origin = origin;
+        this.outside = outside;
+    }
+
+    public static CharGrid of(final String input, final char outside) {
+        return of(Input.of(input), 1, outside);
+    }
+
+    public static CharGrid of(final Input input, final char outside) {
+        return of(input, 1, outside);
+    }
+
+    public static CharGrid of(final Input input, final int border, final char outside) {
+        final List<Input.Line> lines = input.lines().toList();
+        final int rows = lines.size();
+        final int cols = lines.stream().mapToInt(Input.Line::length).max().orElse(0);
+        final int stride = cols + 2 * border;
+        final byte[] data = new byte[(rows + 2 * border) * stride];
+        Arrays.fill(data, (byte) outside);
+        final int origin = border * stride + border;
+        for (int r = 0; r < rows; r++) {
+            final Input.Line line = lines.get(r);
+            for (int c = 0; c < line.length(); c++) {
+                data[origin + r * stride + c] = line.byteAt(c);
+            }
+        }
+        return new CharGrid(data, rows, cols, stride, border, origin, (byte) outside);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int stride() {
+        return stride;
+    }
+
+    // Size of the backing array, i.e. one past the largest valid raw index
+    public int capacity() {
+        return data.length;
+    }
+
+    public int border() {
+        return border;
+    }
+
+    public char outside() {
+        return (char) (outside & 0xFF);
+    }
+
+    public boolean isWithin(final int row, final int col) {
+        return 0 <= row && row < rows && 0 <= col && col < cols;
+    }
+
+    public boolean isWithin(final Position pos) {
+        return isWithin(pos.x(), pos.y());
+    }
+
+    public boolean isWithin(final long coords) {
+        return isWithin(Coords.row(coords), Coords.col(coords));
+    }
+
+    public char get(final int row, final int col) {
+        return isWithin(row, col) ? at(index(row, col)) : outside();
+    }
+
+    public char get(final Position pos) {
+        return get(pos.x(), pos.y());
+    }
+
+    public char get(final long coords) {
+        return get(Coords.row(coords), Coords.col(coords));
+    }
+
+    public void set(final int row, final int col, final char value) {
+        if (!isWithin(row, col)) {
+            throw new IndexOutOfBoundsException("(%s, %s) is outside the %sx%s grid".formatted(row, col, rows, cols));
+        }
+        data[index(row, col)] = (byte) value;
+    }
+
+    public void set(final Position pos, final char value) {
+        set(pos.x(), pos.y(), value);
+    }
+
+    public int index(final int row, final int col) {
+        return origin + row * stride + col;
+    }
+
+    public int index(final Position pos) {
+        return index(pos.x(), pos.y());
+    }
+
+    public int row(final int index) {
+        return Math.floorDiv(index - origin + border, stride);
+    }
+
+    public int col(final int index) {
+        return Math.floorMod(index - origin + border, stride) - border;
+    }
+
+    public int offset(final Offset offset) {
+        return offset.dRow() * stride + offset.dCol();
+    }
+
+    // Raw access by index; only valid within the grid and its border
+    public char at(final int index) {
+        return (char) (data[index] & 0xFF);
+    }
+
+    public void setAt(final int index, final char value) {
+        data[index] = (byte) value;
+    }
+
+    public Position find(final char value) {
+        for (int r = 0; r < rows; r++) {
+            final int rowStart = index(r, 0);
+            for (int c = 0; c < cols; c++) {
+                if (data[rowStart + c] == (byte) value) {
+                    return Position.of(r, c);
+                }
+            }
+        }
+        throw new RuntimeException("Cannot find %s in the grid".formatted(value));
+    }
+
+    public int count(final char value) {
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            final int rowStart = index(r, 0);
+            for (int c = 0; c < cols; c++) {
+                if (data[rowStart + c] == (byte) value) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    public interface CharReducer {
+
+        int apply(int accumulator, char neighbor);
+    }
+
+    public int countNeighborsFull(final int row, final int col, final char value) {
+        return countNeighbors(row, col, Kernel.EIGHT, value);
+    }
+
+    public int countNeighbors(final int row, final int col, final Kernel kernel, final char value) {
+        return reduceNeighbors(row, col, kernel, 0, (count, neighbor) -> neighbor == value ? count + 1 : count);
+    }
+
+    public int reduceNeighbors(final int row, final int col, final Kernel kernel, final int identity,
+                               final CharReducer reducer) {
+        int accumulator = identity;
+        if (border >= kernel.reach() && isWithin(row, col)) {
+            // Every neighbour is inside the grid or its sentinel border
+            final int index = index(row, col);
+            for (final int delta : kernel.deltas(stride)) {
+                accumulator = reducer.apply(accumulator, (char) (data[index + delta] & 0xFF));
+            }
+            return accumulator;
+        }
+        for (int i = 0; i < kernel.size(); i++) {
+            accumulator = reducer.apply(accumulator, get(row + kernel.dRow(i), col + kernel.dCol(i)));
+        }
+        return accumulator;
+    }
+
+    /**
+     * Neighbour counts of every cell at once, row-major in a rows x cols array. With a wide enough border each kernel
+     * offset becomes one pass of plain array loops over every row, which the JIT can unroll and vectorise.
+     */
+    public int[] countNeighborsAll(final Kernel kernel, final char value) {
+        final int[] counts = new int[rows * cols];
+        if (border < kernel.reach()) {
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    counts[r * cols + c] = countNeighbors(r, c, kernel, value);
+                }
+            }
+            return counts;
+        }
+        final byte target = (byte) value;
+        final int[] deltas = kernel.deltas(stride);
+        for (int r = 0; r < rows; r++) {
+            final int rowStart = index(r, 0);
+            final int out = r * cols;
+            for (final int delta : deltas) {
+                final int from = rowStart + delta;
+                for (int c = 0; c < cols; c++) {
+                    counts[out + c] += data[from + c] == target ? 1 : 0;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Repeatedly replaces every {@code value} cell with fewer than {@code threshold} such cells among its kernel
+     * neighbours, until none is left, and returns how many were replaced. The kernel defaults to all eight neighbours.
+     * Neighbour counts are computed once, one byte per cell; each replacement then only decrements its neighbours and
+     * queues those that drop below the threshold, so the whole cascade is linear in the grid size.
+     */
+    public int peel(final char value, final char replacement, final int threshold) {
+        return peel(Kernel.EIGHT, value, replacement, threshold);
+    }
+
+    public int peel(final Kernel kernel, final char value, final char replacement, final int threshold) {
+        if (kernel.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Kernels of more than %s cells cannot be peeled".formatted(Byte.MAX_VALUE));
+        }
+        // Neighbour counts of the value cells inside the grid, -1 everywhere else
+        final byte[] counts = new byte[data.length];
+        Arrays.fill(counts, (byte) -1);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                final int index = index(r, c);
+                if (data[index] == (byte) value) {
+                    counts[index] = (byte) countNeighbors(r, c, kernel, value);
+                }
+            }
+        }
+
+        final int[] queue = new int[rows * cols];
+        int head = 0;
+        int tail = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                final int index = index(r, c);
+                if (counts[index] >= 0 && counts[index] < threshold) {
+                    data[index] = (byte) replacement;
+                    queue[tail++] = index;
+                }
+            }
+        }
+        final int[] deltas = kernel.deltas(stride);
+        while (head < tail) {
+            final int index = queue[head++];
+            final int row = row(index);
+            final int col = col(index);
+            for (int i = 0; i < deltas.length; i++) {
+                // The cells that count this one are the ones at the opposite offsets. Without a wide enough border,
+                // raw indices of edge cells may wrap around or leave the array.
+                if (border < kernel.reach() && !isWithin(row - kernel.dRow(i), col - kernel.dCol(i))) {
+                    continue;
+                }
+                final int neighbor = index - deltas[i];
+                if (counts[neighbor] >= 0 && data[neighbor] == (byte) value && --counts[neighbor] < threshold) {
+                    data[neighbor] = (byte) replacement;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    public CharGrid copy() {
+        return new CharGrid(data.clone(), rows, cols, stride, border, origin, outside);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(rows * (cols + 1));
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sb.append('\n');
+            }
+            for (int c = 0; c < cols; c++) {
+                sb.append(at(index(r, c)));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.rips7.util;
+
+import com.rips7.util.Util.Direction;
+import com.rips7.util.Util.Offset;
+import com.rips7.util.Util.Position;
+
+/**
+ * Grid coordinates packed into a single {@code long}: the row in the high 32 bits and the column in the low 32 bits.
+ * The same packing is used for offsets (deltas), so moving around a grid never allocates.
+ */
+@SuppressWarnings("unused")
+public final class Coords {
+    private static final Offset[] OFFSETS = Offset.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    public static final long UP = of(Offset.UP);
+    public static final long RIGHT = of(Offset.RIGHT);
+    public static final long DOWN = of(Offset.DOWN);
+    public static final long LEFT = of(Offset.LEFT);
+
+    private Coords() {}
+
+    public static long pack(final int row, final int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    public static int row(final long coords) {
+        return (int) (coords >> 32);
+    }
+
+    public static int col(final long coords) {
+        return (int) coords;
+    }
+
+    public static long of(final Position pos) {
+        return pack(pos.x(), pos.y());
+    }
+
+    public static long of(final Offset offset) {
+        return pack(offset.dRow(), offset.dCol());
+    }
+
+    public static long of(final Direction direction) {
+        return of(direction.offset());
+    }
+
+    public static Position toPosition(final long coords) {
+        return Position.of(row(coords), col(coords));
+    }
+
+    public static long add(final long coords, final long delta) {
+        return pack(row(coords) + row(delta), col(coords) + col(delta));
+    }
+
+    public static long apply(final long coords, final Offset offset) {
+        return pack(row(coords) + offset.dRow(), col(coords) + offset.dCol());
+    }
+
+    public static long move(final long coords, final Direction direction) {
+        return apply(coords, direction.offset());
+    }
+
+    public static long move(final long coords, final Direction direction, final int steps) {
+        return pack(row(coords) + direction.offset().dRow() * steps, col(coords) + direction.offset().dCol() * steps);
+    }
+
+    public static long neighbor(final long coords, final int offsetIndex) {
+        return apply(coords, OFFSETS[offsetIndex]);
+    }
+
+    public static Direction direction(final int ordinal) {
+        return DIRECTIONS[ordinal];
+    }
+
+    // Rotates a delta clockwise, matching Direction.rotate90 for the cardinal and diagonal directions
+    public static long rotate90(final long delta) {
+        return pack(col(delta), -row(delta));
+    }
+
+    public static long rotateNeg90(final long delta) {
+        return pack(-col(delta), row(delta));
+    }
+
+    public static long negate(final long delta) {
+        return pack(-row(delta), -col(delta));
+    }
+
+    public static boolean isWithin(final long coords, final int rows, final int cols) {
+        return Util.isWithinGrid(row(coords), col(coords), rows, cols);
+    }
+
+    public static int manhattan(final long a, final long b) {
+        return Math.abs(row(a) - row(b)) + Math.abs(col(a) - col(b));
+    }
+
+    // Row-major index into a rows x cols array
+    public static int index(final long coords, final int cols) {
+        return row(coords) * cols + col(coords);
+    }
+
+    public static long fromIndex(final int index, final int cols) {
+        return pack(index / cols, index % cols);
+    }
+
+    public static int compare(final long a, final long b) {
+        final int byRow = Integer.compare(row(a), row(b));
+        return byRow != 0 ? byRow : Integer.compare(col(a), col(b));
+    }
+
+    public static String toString(final long coords) {
+        return "(%s, %s)".formatted(row(coords), col(coords));
+    }
+}
@@ -0,0 +1,77 @@
+package com.rips7.util;
+
+import com.rips7.util.Util.Offset;
+
+import java.util.Arrays;
+
+/**
+ * A stencil: a fixed set of neighbour offsets visited around a cell. Grids turn it into raw index deltas once per
+ * stride, so visiting the neighbours of a cell is a loop over an {@code int[]} with no allocation.
+ */
+@SuppressWarnings("unused")
+public final class Kernel {
+    public static final Kernel FOUR = of(Offset.UP, Offset.RIGHT, Offset.DOWN, Offset.LEFT);
+    public static final Kernel EIGHT = of(Offset.values());
+
+    private final int[] dRows;
+    private final int[] dCols;
+    private final int reach;
+    // Deltas for the most recently requested stride; grids keep asking for the same one
+    private volatile Deltas cached;
+
+    private record Deltas(int stride, int[] deltas) {}
+
+    private Kernel(final int[] dRows, final int[] dCols) {
+        this.dRows = dRows;
+        this.dCols = dCols;
+        int reach = 0;
+        for (int i = 0; i < dRows.length; i++) {
+            reach = Math.max(reach, Math.max(Math.abs(dRows[i]), Math.abs(dCols[i])));
+        }
+        this.reach = reach;
+    }
+
+    public static Kernel of(final Offset... offsets) {
+        return new Kernel(
+                Arrays.stream(offsets).mapToInt(Offset::dRow).toArray(),
+                Arrays.stream(offsets).mapToInt(Offset::dCol).toArray());
+    }
+
+    // Offsets as packed Coords deltas, e.g. for knight moves or a 5x5 window
+    public static Kernel of(final long... deltas) {
+        return new Kernel(
+                Arrays.stream(deltas).mapToInt(Coords::row).toArray(),
+                Arrays.stream(deltas).mapToInt(Coords::col).toArray());
+    }
+
+    public int size() {
+        return dRows.length;
+    }
+
+    public int dRow(final int i) {
+        return dRows[i];
+    }
+
+    public int dCol(final int i) {
+        return dCols[i];
+    }
+
+    // Largest distance of any offset along either axis; a border at least this wide makes raw indexing safe
+    public int reach() {
+        return reach;
+    }
+
+    // Raw index deltas for a row-major layout whose rows are stride cells apart; the array is shared, do not modify it
+    public int[] deltas(final int stride) {
+        final Deltas current = cached;
+        if (current != null && current.stride() == stride) {
+            return current.deltas();
+        }
+        final int[] deltas = new int[dRows.length];
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = dRows[i] * stride + dCols[i];
+        }
+        cached = new Deltas(stride, deltas);
+        return deltas;
+    }
+}
@@ -4,16 +4,24 @@ import com.rips7.util.maths.Maths.Vector2D;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -62,9 +70,20 @@ public class Util {
         public static List<Offset> getOffsets() {
             return Arrays.stream(values()).toList();
         }
+
+        public int dRow() {
+            return value.x();
+        }
+
+        public int dCol() {
+            return value.y();
+        }
     }
 
     public record Position(Vector2D<Integer> value) implements Comparable<Position> {
+        private static final Comparator<Position> COMPARATOR = Comparator.comparingInt(Position::x)
+                .thenComparingInt(Position::y);
+
         public static Position of(final int i, final int j) {
             return new Position(Vector2D.of(i, j));
         }
@@ -83,9 +102,7 @@ public class Util {
 
         @Override
         public int compareTo(final Position o) {
-            return Comparator.comparingInt((Position p) -> p.value.x())
-                    .thenComparingInt(p -> p.value.y())
-                    .compare(this, o);
+            return COMPARATOR.compare(this, o);
         }
     }
 
@@ -224,34 +241,76 @@ public class Util {
     }
 
     public static <T> TimedResult<T> time(final Callable<T> runnable) {
-        final long start = System.currentTimeMillis();
-        final T res;
+        return time(runnable, Measurement.SINGLE);
+    }
+
+    public static <T> TimedResult<T> time(final Callable<T> runnable, final Measurement measurement) {
+        for (int i = 0; i < measurement.warmupIterations(); i++) {
+            call(runnable);
+        }
+        final long[] samples = new long[measurement.measuredIterations()];
+        final AllocationProbe probe = AllocationProbe.start();
+        T res = null;
+        for (int i = 0; i < samples.length; i++) {
+            final long start = System.nanoTime();
+            res = call(runnable);
+            samples[i] = System.nanoTime() - start;
+        }
+        return new TimedResult<>(res, new Timings(samples), probe.stop(samples.length));
+    }
+
+    private static <T> T call(final Callable<T> runnable) {
         try {
-            res = runnable.call();
+            return runnable.call();
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
-        final long end = System.currentTimeMillis();
-        final long diff = end - start;
-        if (diff < 1_000) { // less than a second
-            return new TimedResult<>(res, "Took %s ms".formatted(diff));
-        } else if (diff < 60_000) { // less than a minute
+    }
+
+    public static String formatDuration(final long nanos) {
+        if (nanos < 1_000_000_000) { // less than a second
+            return "%.3f ms".formatted(nanos / 1_000_000.0);
+        }
+        final long diff = nanos / 1_000_000;
+        if (diff < 60_000) { // less than a minute
             long millis = diff;
             final long seconds = millis / 1_000;
             millis -= seconds * 1_000;
-            return new TimedResult<>(res, "Took %s sec, %s ms".formatted(seconds, millis));
+            return "%s sec, %s ms".formatted(seconds, millis);
         } else {
             long millis = diff;
             final long minutes = millis / 60_000;
             millis -= minutes * 60_000;
             final long seconds = millis / 1_000;
             millis -= seconds * 1_000;
-            return new TimedResult<>(res, "Took %s min, %s sec, %s ms".formatted(minutes, seconds, millis));
+            return "%s min, %s sec, %s ms".formatted(minutes, seconds, millis);
+        }
+    }
+
+    // Bytes allocated so far by the calling thread; lets days account for work on their own worker threads, which the
+    // per-thread allocation figures of a timed run do not see
+    public static long currentThreadAllocatedBytes() {
+        return AllocationProbe.THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    public static String formatBytes(final long bytes) {
+        if (bytes < 1_024) {
+            return "%s B".formatted(bytes);
+        } else if (bytes < 1_024 * 1_024) {
+            return "%.1f KB".formatted(bytes / 1_024.0);
+        } else if (bytes < 1_024 * 1_024 * 1_024) {
+            return "%.1f MB".formatted(bytes / (1_024.0 * 1_024));
+        } else {
+            return "%.2f GB".formatted(bytes / (1_024.0 * 1_024 * 1_024));
         }
     }
 
     public static void printColor(final String text, final AnsiColor col) {
-        System.out.printf("%s%s%s", col, text, AnsiColor.RESET);
+        printColor(System.out, text, col);
+    }
+
+    public static void printColor(final PrintStream out, final String text, final AnsiColor col) {
+        out.printf("%s%s%s", col, text, AnsiColor.RESET);
     }
 
     public static void loop2D(final int rows, final int cols, final BiConsumer<Integer, Integer> cb) {
@@ -337,15 +396,11 @@ public class Util {
 
     public record Grid<T>(T[][] grid, T defaultValue) {
 
-        private static final Function<Position, List<Position>> FULL_NEIGHBOR_POSITION_GETTER = (pos) -> List.of(
-                Position.of(pos.x() - 1, pos.y() - 1),
-                Position.of(pos.x() - 1, pos.y()),
-                Position.of(pos.x() - 1, pos.y() + 1),
-                Position.of(pos.x(), pos.y() - 1),
-                Position.of(pos.x(), pos.y() + 1),
-                Position.of(pos.x() + 1, pos.y() - 1),
-                Position.of(pos.x() + 1, pos.y()),
-                Position.of(pos.x() + 1, pos.y() + 1));
+        // Same neighbour order as before the kernel API: row by row, left to right
+        private static final Kernel FULL = Kernel.of(
+                Coords.pack(-1, -1), Coords.pack(-1, 0), Coords.pack(-1, 1),
+                Coords.pack(0, -1), Coords.pack(0, 1),
+                Coords.pack(1, -1), Coords.pack(1, 0), Coords.pack(1, 1));
 
         public static <T> Grid<T> of(final T[][] grid) {
             return of(grid, null);
@@ -391,10 +446,34 @@ public class Util {
         }
 
         public List<T> getNeighborsFull(final int r, final int c) {
-            return FULL_NEIGHBOR_POSITION_GETTER.apply(Position.of(r, c)).stream()
-                    .map(this::get)
-                    .filter(Objects::nonNull)
-                    .toList();
+            final List<T> neighbors = new ArrayList<>(FULL.size());
+            for (int i = 0; i < FULL.size(); i++) {
+                final T neighbor = get(r + FULL.dRow(i), c + FULL.dCol(i));
+                if (neighbor != null) {
+                    neighbors.add(neighbor);
+                }
+            }
+            return neighbors;
+        }
+
+        // Allocation-free neighbour count; cells outside the grid read as defaultValue
+        public int countNeighbors(final int r, final int c, final Kernel kernel, final Predicate<T> matcher) {
+            int count = 0;
+            for (int i = 0; i < kernel.size(); i++) {
+                if (matcher.test(get(r + kernel.dRow(i), c + kernel.dCol(i)))) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        public <A> A reduceNeighbors(final int r, final int c, final Kernel kernel, final A identity,
+                                     final BiFunction<A, T, A> reducer) {
+            A accumulator = identity;
+            for (int i = 0; i < kernel.size(); i++) {
+                accumulator = reducer.apply(accumulator, get(r + kernel.dRow(i), c + kernel.dCol(i)));
+            }
+            return accumulator;
         }
 
         public boolean isWithin(final Position pos) {
@@ -423,7 +502,110 @@ public class Util {
         }
     }
 
-    public record TimedResult<T>(T res, String timeInfo) {}
+    public record Measurement(int warmupIterations, int measuredIterations) {
+        public static final Measurement SINGLE = new Measurement(0, 1);
+
+        public Measurement {
+            if (warmupIterations < 0 || measuredIterations < 1) {
+                throw new IllegalArgumentException("Invalid measurement %s/%s".formatted(warmupIterations, measuredIterations));
+            }
+        }
+    }
+
+    public record Timings(long[] samples) {
+        public Timings {
+            samples = samples.clone();
+            Arrays.sort(samples);
+        }
+
+        public long min() {
+            return samples[0];
+        }
+
+        public long median() {
+            return percentile(50);
+        }
+
+        public long p99() {
+            return percentile(99);
+        }
+
+        public long percentile(final int percentile) {
+            // Nearest-rank percentile over the sorted samples
+            final int rank = (int) Math.ceil(percentile / 100.0 * samples.length);
+            return samples[Math.max(rank, 1) - 1];
+        }
+
+        public long total() {
+            return Arrays.stream(samples).sum();
+        }
+
+        public double throughput() {
+            return samples.length / (Math.max(total(), 1) / 1_000_000_000.0);
+        }
+    }
+
+    public record Allocations(long allocatedBytes, long peakHeapDelta, long gcCount, long gcMillis) {
+        public String info() {
+            return "alloc %s/run, peak heap +%s, GC %s in %s ms".formatted(
+                    formatBytes(allocatedBytes), formatBytes(peakHeapDelta), gcCount, gcMillis);
+        }
+    }
+
+    // Allocated bytes are tracked per thread; heap and GC figures are process-wide, so they include any work
+    // running concurrently (e.g. other days in parallel mode).
+    private record AllocationProbe(long allocatedBytes, long heapUsed, long gcCount, long gcMillis) {
+        private static final com.sun.management.ThreadMXBean THREADS =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        private static AllocationProbe start() {
+            final List<MemoryPoolMXBean> heapPools = heapPools();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            return new AllocationProbe(
+                    THREADS.getCurrentThreadAllocatedBytes(),
+                    heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum(),
+                    gcStat(GarbageCollectorMXBean::getCollectionCount),
+                    gcStat(GarbageCollectorMXBean::getCollectionTime));
+        }
+
+        private Allocations stop(final int runs) {
+            final long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBytes;
+            // Sum of the per-pool peaks, which bounds the peak of the whole heap from above
+            final long peakHeap = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            return new Allocations(
+                    allocated / runs,
+                    Math.max(peakHeap - heapUsed, 0),
+                    gcStat(GarbageCollectorMXBean::getCollectionCount) - gcCount,
+                    gcStat(GarbageCollectorMXBean::getCollectionTime) - gcMillis);
+        }
+
+        private static List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                    .toList();
+        }
+
+        private static long gcStat(final ToLongFunction<GarbageCollectorMXBean> stat) {
+            return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .mapToLong(stat)
+                    .filter(value -> value > 0)
+                    .sum();
+        }
+    }
+
+    public record TimedResult<T>(T res, Timings timings, Allocations allocations) {
+        public String timeInfo() {
+            if (timings.samples().length == 1) {
+                return "Took %s".formatted(formatDuration(timings.min()));
+            }
+            return "min %s, median %s, p99 %s, %.1f ops/s over %s runs".formatted(
+                    formatDuration(timings.min()),
+                    formatDuration(timings.median()),
+                    formatDuration(timings.p99()),
+                    timings.throughput(),
+                    timings.samples().length);
+        }
+    }
 
     @FunctionalInterface
     public interface TriConsumer<T,U,V> {
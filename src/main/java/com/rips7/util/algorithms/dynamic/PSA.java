@@ -5,6 +5,7 @@ import com.rips7.util.Util.Position;
 
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
 
 public record PSA<T>(T psa) {
     public static <T extends Number> PSA<T[][]> newPSA2D(
@@ -21,4 +22,18 @@ public record PSA<T>(T psa) {
         });
         return new PSA<>(psa);
     }
+
+    // Primitive variant; value gives the cell at (row, col), e.g. 1 for cells set in a bitset
+    public static PSA<int[][]> newPSA2D(final int rows, final int cols, final IntBinaryOperator value) {
+        final int[][] psa = new int[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                final int left = i > 0 ? psa[i - 1][j] : 0;
+                final int top = j > 0 ? psa[i][j - 1] : 0;
+                final int topLeft = i > 0 && j > 0 ? psa[i - 1][j - 1] : 0;
+                psa[i][j] = left + top - topLeft + value.applyAsInt(i, j);
+            }
+        }
+        return new PSA<>(psa);
+    }
 }
@@ -0,0 +1,116 @@
+package com.rips7.util.algorithms.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Maps the distinct values of one axis to their ranks 0..n-1. Ranks are looked up in an open-addressing hash table in
+ * O(1), or by binary search for values that are not on the axis.
+ * <p>
+ * The expanded indices interleave the values with the gaps between them: value k sits at 2k and the gap between
+ * values k and k + 1 at 2k + 1. A grid over the expanded indices keeps empty space between distinct coordinates
+ * apart, and {@link #expandedLength(int)} maps every cell back to the real length it stands for.
+ */
+@SuppressWarnings("unused")
+public final class CoordinateCompressor {
+    private static final int EMPTY = -1;
+
+    private final long[] axis;
+    private final long[] keys;
+    private final int[] ranks;
+    private final int mask;
+
+    private CoordinateCompressor(final long[] axis) {
+        this.axis = axis;
+        final int capacity = Integer.highestOneBit(Math.max(2, axis.length) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.ranks = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(ranks, EMPTY);
+        for (int rank = 0; rank < axis.length; rank++) {
+            int slot = slot(axis[rank]);
+            while (ranks[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = axis[rank];
+            ranks[slot] = rank;
+        }
+    }
+
+    public static CoordinateCompressor of(final int[] values) {
+        return of(Arrays.stream(values).asLongStream().toArray());
+    }
+
+    public static CoordinateCompressor of(final long[] values) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return new CoordinateCompressor(Arrays.copyOf(sorted, distinct));
+    }
+
+    private int slot(final long value) {
+        final long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public int size() {
+        return axis.length;
+    }
+
+    public long value(final int rank) {
+        return axis[rank];
+    }
+
+    // Rank of a value on the axis, or -1 if it is not there
+    public int indexOf(final long value) {
+        for (int slot = slot(value); ranks[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == value) {
+                return ranks[slot];
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(final long value) {
+        return indexOf(value) != -1;
+    }
+
+    public int rank(final long value) {
+        final int rank = indexOf(value);
+        if (rank == -1) {
+            throw new IllegalArgumentException("%s is not on the axis".formatted(value));
+        }
+        return rank;
+    }
+
+    // Rank of the largest value not greater than the given one, or -1 if every value is greater
+    public int floorRank(final long value) {
+        final int found = Arrays.binarySearch(axis, value);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    public int expandedSize() {
+        return Math.max(0, axis.length * 2 - 1);
+    }
+
+    public int expandedIndex(final long value) {
+        return rank(value) * 2;
+    }
+
+    // Real length of an expanded cell: 1 for a value, the number of coordinates strictly between neighbours for a gap
+    public long expandedLength(final int expandedIndex) {
+        if (expandedIndex % 2 == 0) {
+            return 1;
+        }
+        final int rank = expandedIndex / 2;
+        return axis[rank + 1] - axis[rank] - 1;
+    }
+
+    public long[] values() {
+        return axis.clone();
+    }
+}
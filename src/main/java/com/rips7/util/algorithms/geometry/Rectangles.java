@@ -0,0 +1,153 @@
+package com.rips7.util.algorithms.geometry;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Largest axis-aligned rectangles whose opposite corners are two of the given points. Points are referred to by their
+ * index in the coordinate arrays, and a rectangle covers whole tiles, so corners (x1, y1) and (x2, y2) enclose
+ * {@code (|x1 - x2| + 1) * (|y1 - y2| + 1)} of them.
+ */
+@SuppressWarnings("unused")
+public final class Rectangles {
+    private static final long MIN_PAIRS_FOR_PARALLEL = 1 << 16;
+
+    private Rectangles() {}
+
+    // The best pair found, with first < second; both are -1 if there are fewer than two points
+    public record Corners(int first, int second, long area) {
+        private static final Corners NONE = new Corners(-1, -1, 0);
+
+        private static Corners of(final int i, final int j, final long area) {
+            return new Corners(Math.min(i, j), Math.max(i, j), area);
+        }
+
+        // Larger area first, then the lexicographically smaller pair, so the result does not depend on search order
+        private static Corners better(final Corners a, final Corners b) {
+            if (a.area != b.area) {
+                return a.area > b.area ? a : b;
+            }
+            if (a.first != b.first) {
+                return a.first < b.first ? a : b;
+            }
+            return a.second <= b.second ? a : b;
+        }
+    }
+
+    @FunctionalInterface
+    public interface PairFilter {
+
+        boolean test(int i, int j);
+    }
+
+    public static long area(final int[] xs, final int[] ys, final int i, final int j) {
+        return (Math.abs((long) xs[i] - xs[j]) + 1) * (Math.abs((long) ys[i] - ys[j]) + 1);
+    }
+
+    /**
+     * Unconstrained search. Moving a corner further away on both axes only grows the rectangle, so the best pair joins
+     * the lower-left staircase to the upper-right one, or the upper-left staircase to the lower-right one. Only those
+     * four chains of Pareto-extreme points are paired up, in parallel when they are long.
+     */
+    public static Corners largestCornerRectangle(final int[] xs, final int[] ys) {
+        requireSameLength(xs, ys);
+        if (xs.length < 2) {
+            return Corners.NONE;
+        }
+        final int[] byX = sortByX(xs);
+        final int[] lowerLeft = staircase(byX, xs, ys, true, true);
+        final int[] upperRight = staircase(byX, xs, ys, false, false);
+        final int[] upperLeft = staircase(byX, xs, ys, true, false);
+        final int[] lowerRight = staircase(byX, xs, ys, false, true);
+        return Corners.better(
+                largestBetween(lowerLeft, upperRight, xs, ys),
+                largestBetween(upperLeft, lowerRight, xs, ys));
+    }
+
+    /**
+     * General fallback for constrained searches, where a pair only counts if the filter accepts it and the staircase
+     * argument no longer holds: every pair is tested, with the rows spread over the common pool.
+     */
+    public static Corners largestCornerRectangle(final int[] xs, final int[] ys, final PairFilter filter) {
+        requireSameLength(xs, ys);
+        final int n = xs.length;
+        return IntStream.range(0, n)
+                .parallel()
+                .mapToObj(i -> {
+                    Corners best = Corners.NONE;
+                    for (int j = i + 1; j < n; j++) {
+                        final long area = area(xs, ys, i, j);
+                        // Skip the filter, which is usually the expensive part, when the pair cannot win anyway
+                        if (area >= best.area() && filter.test(i, j)) {
+                            best = Corners.better(best, Corners.of(i, j, area));
+                        }
+                    }
+                    return best;
+                })
+                .reduce(Corners.NONE, Corners::better);
+    }
+
+    private static Corners largestBetween(final int[] from, final int[] to, final int[] xs, final int[] ys) {
+        final IntStream rows = IntStream.range(0, from.length);
+        return ((long) from.length * to.length >= MIN_PAIRS_FOR_PARALLEL ? rows.parallel() : rows)
+                .mapToObj(a -> {
+                    Corners best = Corners.NONE;
+                    for (final int j : to) {
+                        final int i = from[a];
+                        if (i != j) {
+                            best = Corners.better(best, Corners.of(i, j, area(xs, ys, i, j)));
+                        }
+                    }
+                    return best;
+                })
+                .reduce(Corners.NONE, Corners::better);
+    }
+
+    // Point indices ordered by x, from (x, index) keys packed into longs to avoid boxing
+    private static int[] sortByX(final int[] xs) {
+        final long[] keys = new long[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            keys[i] = ((long) xs[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        final int[] order = new int[xs.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Walks the points by x, from the left or from the right, and keeps each column's lowest (or highest) point when
+     * it is lower (higher) than everything seen so far. What remains is the staircase of points no other point
+     * dominates towards that corner.
+     */
+    private static int[] staircase(final int[] byX, final int[] xs, final int[] ys, final boolean fromLeft,
+                                   final boolean lower) {
+        final int[] chain = new int[byX.length];
+        int size = 0;
+        long bestY = lower ? Long.MAX_VALUE : Long.MIN_VALUE;
+        int k = fromLeft ? 0 : byX.length - 1;
+        final int step = fromLeft ? 1 : -1;
+        while (0 <= k && k < byX.length) {
+            final int x = xs[byX[k]];
+            int extreme = byX[k];
+            for (k += step; 0 <= k && k < byX.length && xs[byX[k]] == x; k += step) {
+                if (lower ? ys[byX[k]] < ys[extreme] : ys[byX[k]] > ys[extreme]) {
+                    extreme = byX[k];
+                }
+            }
+            if (lower ? ys[extreme] < bestY : ys[extreme] > bestY) {
+                bestY = ys[extreme];
+                chain[size++] = extreme;
+            }
+        }
+        return Arrays.copyOf(chain, size);
+    }
+
+    private static void requireSameLength(final int[] xs, final int[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length");
+        }
+    }
+}
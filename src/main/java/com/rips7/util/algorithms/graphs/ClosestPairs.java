@@ -0,0 +1,155 @@
+package com.rips7.util.algorithms.graphs;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Selects the k lightest edges of an implicit complete graph on n nodes without materialising all n(n-1)/2 edges.
+ * Edges are ordered by weight, then by (u, v), which is the order a stable sort of the edges generated row by row
+ * would give.
+ */
+@SuppressWarnings("unused")
+public final class ClosestPairs {
+    private static final int MIN_ROWS_PER_TASK = 64;
+
+    private ClosestPairs() {}
+
+    public record Edges(int[] u, int[] v, long[] weight) {
+        public int size() {
+            return weight.length;
+        }
+    }
+
+    public static Edges smallest(final int n, final int k, final PairDistance distance) {
+        final EdgeHeap heap = new EdgeHeap(k);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                heap.offer(i, j, distance.distance(i, j));
+            }
+        }
+        return heap.toSortedEdges();
+    }
+
+    // The k lightest among the given candidate edges (u[i], v[i]), which must not contain duplicates
+    public static Edges smallest(final int[] u, final int[] v, final int k, final PairDistance distance) {
+        final EdgeHeap heap = new EdgeHeap(k);
+        for (int i = 0; i < u.length; i++) {
+            heap.offer(Math.min(u[i], v[i]), Math.max(u[i], v[i]), distance.distance(u[i], v[i]));
+        }
+        return heap.toSortedEdges();
+    }
+
+    // Splits the rows over the common pool; every task keeps its own bounded heap and the heaps are merged at the end
+    public static Edges smallestParallel(final int n, final int k, final PairDistance distance) {
+        final int tasks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, n / MIN_ROWS_PER_TASK));
+        if (tasks == 1) {
+            return smallest(n, k, distance);
+        }
+        final List<EdgeHeap> heaps = IntStream.range(0, tasks)
+                .parallel()
+                .mapToObj(first -> {
+                    final EdgeHeap heap = new EdgeHeap(k);
+                    // Interleave the rows so that every task gets a similar number of pairs
+                    for (int i = first; i < n - 1; i += tasks) {
+                        for (int j = i + 1; j < n; j++) {
+                            heap.offer(i, j, distance.distance(i, j));
+                        }
+                    }
+                    return heap;
+                })
+                .toList();
+        final EdgeHeap merged = new EdgeHeap(k);
+        for (final EdgeHeap heap : heaps) {
+            for (int e = 0; e < heap.size; e++) {
+                merged.offer(heap.u[e], heap.v[e], heap.weight[e]);
+            }
+        }
+        return merged.toSortedEdges();
+    }
+
+    // Bounded max-heap over parallel primitive arrays, keeping the k smallest edges offered
+    private static final class EdgeHeap {
+        private final int[] u;
+        private final int[] v;
+        private final long[] weight;
+        private int size;
+
+        private EdgeHeap(final int capacity) {
+            u = new int[capacity];
+            v = new int[capacity];
+            weight = new long[capacity];
+        }
+
+        private void offer(final int eu, final int ev, final long ew) {
+            if (size < weight.length) {
+                set(size, eu, ev, ew);
+                siftUp(size++);
+            } else if (size > 0 && less(ew, eu, ev, 0)) {
+                set(0, eu, ev, ew);
+                siftDown(0, size);
+            }
+        }
+
+        private boolean less(final long ew, final int eu, final int ev, final int slot) {
+            if (ew != weight[slot]) {
+                return ew < weight[slot];
+            }
+            return eu != u[slot] ? eu < u[slot] : ev < v[slot];
+        }
+
+        private void set(final int slot, final int eu, final int ev, final long ew) {
+            u[slot] = eu;
+            v[slot] = ev;
+            weight[slot] = ew;
+        }
+
+        private void swap(final int a, final int b) {
+            final int tu = u[a];
+            final int tv = v[a];
+            final long tw = weight[a];
+            set(a, u[b], v[b], weight[b]);
+            set(b, tu, tv, tw);
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                final int parent = (slot - 1) >>> 1;
+                if (!less(weight[parent], u[parent], v[parent], slot)) {
+                    return;
+                }
+                swap(parent, slot);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot, final int end) {
+            while (true) {
+                final int left = 2 * slot + 1;
+                if (left >= end) {
+                    return;
+                }
+                final int right = left + 1;
+                final int larger = right < end && less(weight[left], u[left], v[left], right) ? right : left;
+                if (!less(weight[slot], u[slot], v[slot], larger)) {
+                    return;
+                }
+                swap(slot, larger);
+                slot = larger;
+            }
+        }
+
+        // Heap sort in place; the heap is consumed
+        private Edges toSortedEdges() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            return new Edges(
+                    Arrays.copyOf(u, size),
+                    Arrays.copyOf(v, size),
+                    Arrays.copyOf(weight, size));
+        }
+    }
+}
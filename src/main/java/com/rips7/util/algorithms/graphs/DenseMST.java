@@ -0,0 +1,184 @@
+package com.rips7.util.algorithms.graphs;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Minimum spanning trees of implicit complete graphs, where the weight of every edge comes from a
+ * {@link PairDistance}. No edge list is ever stored. Ties are broken by the node indices, so both variants build the
+ * same tree.
+ */
+@SuppressWarnings("unused")
+public final class DenseMST {
+
+    private DenseMST() {}
+
+    // Edge i joins nodes u[i] and v[i]; there are n - 1 edges for n nodes
+    public record SpanningTree(int[] u, int[] v, long[] weight) {
+        public int size() {
+            return weight.length;
+        }
+
+        public long totalWeight() {
+            return Arrays.stream(weight).sum();
+        }
+
+        // Index of the heaviest edge, i.e. the last edge Kruskal's algorithm would add
+        public int longestEdge() {
+            int longest = -1;
+            for (int i = 0; i < weight.length; i++) {
+                if (longest == -1 || isLighter(weight[longest], u[longest], v[longest], weight[i], u[i], v[i])) {
+                    longest = i;
+                }
+            }
+            return longest;
+        }
+    }
+
+    /**
+     * Prim's algorithm in O(n²) time and O(n) memory.
+     */
+    public static SpanningTree prim(final int n, final PairDistance distance) {
+        final int[] u = new int[Math.max(n - 1, 0)];
+        final int[] v = new int[u.length];
+        final long[] weight = new long[u.length];
+        if (n <= 1) {
+            return new SpanningTree(u, v, weight);
+        }
+
+        final boolean[] inTree = new boolean[n];
+        // Lightest known edge from each node outside the tree into the tree
+        final long[] best = new long[n];
+        final int[] bestFrom = new int[n];
+        Arrays.fill(best, Long.MAX_VALUE);
+
+        int current = 0;
+        inTree[current] = true;
+        for (int edge = 0; edge < n - 1; edge++) {
+            int next = -1;
+            for (int j = 0; j < n; j++) {
+                if (inTree[j]) {
+                    continue;
+                }
+                final long d = distance.distance(current, j);
+                if (isLighter(d, Math.min(current, j), Math.max(current, j),
+                        best[j], Math.min(bestFrom[j], j), Math.max(bestFrom[j], j))) {
+                    best[j] = d;
+                    bestFrom[j] = current;
+                }
+                if (next == -1 || isLighter(best[j], Math.min(bestFrom[j], j), Math.max(bestFrom[j], j),
+                        best[next], Math.min(bestFrom[next], next), Math.max(bestFrom[next], next))) {
+                    next = j;
+                }
+            }
+            inTree[next] = true;
+            u[edge] = Math.min(bestFrom[next], next);
+            v[edge] = Math.max(bestFrom[next], next);
+            weight[edge] = best[next];
+            current = next;
+        }
+        return new SpanningTree(u, v, weight);
+    }
+
+    /**
+     * Borůvka's algorithm: every round finds, in parallel, the lightest edge leaving each component and merges along
+     * them. O(n² log n) time in O(n) memory, spread over the common pool.
+     */
+    public static SpanningTree boruvkaParallel(final int n, final PairDistance distance) {
+        return boruvka(n, (component, self) -> {
+            long bestWeight = Long.MAX_VALUE;
+            int bestOther = -1;
+            for (int j = 0; j < n; j++) {
+                if (component[j] == component[self]) {
+                    continue;
+                }
+                final long d = distance.distance(self, j);
+                if (bestOther == -1 || isLighter(d, Math.min(self, j), Math.max(self, j),
+                        bestWeight, Math.min(self, bestOther), Math.max(self, bestOther))) {
+                    bestWeight = d;
+                    bestOther = j;
+                }
+            }
+            return bestOther;
+        }, distance);
+    }
+
+    /**
+     * Borůvka's algorithm with a caller-supplied search for the nearest node in another component, e.g. backed by a
+     * spatial index.
+     */
+    public static SpanningTree boruvka(final int n, final NearestForeign nearestForeign, final PairDistance distance) {
+        final int[] u = new int[Math.max(n - 1, 0)];
+        final int[] v = new int[u.length];
+        final long[] weight = new long[u.length];
+        final IntDisjointSetUnion dsu = new IntDisjointSetUnion(n);
+        int edges = 0;
+        while (dsu.componentCount() > 1) {
+            final int[] component = new int[n];
+            for (int i = 0; i < n; i++) {
+                component[i] = dsu.find(i);
+            }
+            nearestForeign.startRound(component);
+            final int[] nearest = IntStream.range(0, n)
+                    .parallel()
+                    .map(i -> nearestForeign.find(component, i))
+                    .toArray();
+            final long[] nearestWeight = new long[n];
+            for (int i = 0; i < n; i++) {
+                nearestWeight[i] = nearest[i] == -1 ? Long.MAX_VALUE : distance.distance(i, nearest[i]);
+            }
+
+            // Lightest outgoing edge per component
+            final int[] bestFrom = new int[n];
+            Arrays.fill(bestFrom, -1);
+            for (int i = 0; i < n; i++) {
+                final int j = nearest[i];
+                if (j == -1) {
+                    continue;
+                }
+                final int root = component[i];
+                final int from = bestFrom[root];
+                if (from == -1 || isLighter(nearestWeight[i], Math.min(i, j), Math.max(i, j),
+                        nearestWeight[from], Math.min(from, nearest[from]), Math.max(from, nearest[from]))) {
+                    bestFrom[root] = i;
+                }
+            }
+
+            for (int root = 0; root < n; root++) {
+                final int i = bestFrom[root];
+                if (i == -1) {
+                    continue;
+                }
+                final int j = nearest[i];
+                if (dsu.union(i, j)) {
+                    u[edges] = Math.min(i, j);
+                    v[edges] = Math.max(i, j);
+                    weight[edges] = nearestWeight[i];
+                    edges++;
+                }
+            }
+        }
+        return new SpanningTree(u, v, weight);
+    }
+
+    // Total order on edges: by weight, then by (u, v) with u < v
+    private static boolean isLighter(final long w1, final int u1, final int v1,
+                                     final long w2, final int u2, final int v2) {
+        if (w1 != w2) {
+            return w1 < w2;
+        }
+        return u1 != u2 ? u1 < u2 : v1 < v2;
+    }
+
+    @FunctionalInterface
+    public interface NearestForeign {
+
+        // Nearest node j with component[j] != component[i], or -1 if there is none
+        int find(int[] component, int i);
+
+        // Called once per round, before any find, with that round's component labels
+        default void startRound(final int[] component) {
+            // Nothing to prepare by default
+        }
+    }
+}
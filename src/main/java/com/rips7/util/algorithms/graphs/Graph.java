@@ -1,71 +1,175 @@
 package com.rips7.util.algorithms.graphs;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
-public class Graph<T> {
-    private final Map<T, Node<T>> lookup;
+/**
+ * Directed graph compiled into compressed sparse rows: the neighbours of node id {@code v} are
+ * {@code targets[offsets[v] .. offsets[v + 1])}. Acyclic graphs also get a topological order, computed once.
+ */
+@SuppressWarnings("unused")
+public final class Graph<T> {
+    private static final int MAX_WAYPOINTS = 20;
+
+    private final Map<T, Integer> ids = new HashMap<>();
+    private final List<T> nodes;
+    private final int[] offsets;
+    private final int[] targets;
+    // Both null if the graph has a cycle
+    private final int[] topologicalOrder;
+    private final int[] topologicalIndex;
 
     public Graph(final Set<T> nodes, final Map<T, Set<T>> connections) {
-        lookup = nodes.stream().collect(Collectors.toMap(
-                Function.identity(),
-                Node::new));
+        this.nodes = new ArrayList<>(nodes);
+        for (int i = 0; i < this.nodes.size(); i++) {
+            ids.put(this.nodes.get(i), i);
+        }
+
+        offsets = new int[this.nodes.size() + 1];
+        connections.forEach((key, value) -> offsets[id(key) + 1] += value.size());
+        for (int i = 0; i < this.nodes.size(); i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        targets = new int[offsets[this.nodes.size()]];
+        final int[] next = offsets.clone();
         connections.forEach((key, value) -> {
-            final Node<T> node = lookup.get(key);
+            final int source = id(key);
             for (final T neighbor : value) {
-                node.neighbors.add(lookup.get(neighbor));
+                targets[next[source]++] = id(neighbor);
             }
         });
-    }
 
-    public long countPaths(final T start, final T end) {
-        final Map<Node<T>, Long> memo = new HashMap<>();
-        return countPaths(lookup.get(start), lookup.get(end), memo);
+        topologicalOrder = topologicalSort();
+        if (topologicalOrder != null) {
+            topologicalIndex = new int[topologicalOrder.length];
+            for (int i = 0; i < topologicalOrder.length; i++) {
+                topologicalIndex[topologicalOrder[i]] = i;
+            }
+        } else {
+            topologicalIndex = null;
+        }
     }
 
-    private long countPaths(final Node<T> current, final Node<T> end, final Map<Node<T>, Long> memo) {
-        if (current.equals(end)) {
-            return 1;
+    // Kahn's algorithm
+    private int[] topologicalSort() {
+        final int n = nodes.size();
+        final int[] inDegree = new int[n];
+        for (final int target : targets) {
+            inDegree[target]++;
         }
-        if (memo.containsKey(current)) {
-            return memo.get(current);
+        final int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                order[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            final int v = order[head++];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (--inDegree[targets[e]] == 0) {
+                    order[tail++] = targets[e];
+                }
+            }
         }
+        return tail == n ? order : null;
+    }
 
-        long paths = 0;
-        for (Node<T> neighbor : current.neighbors) {
-            paths += countPaths(neighbor, end, memo);
+    public long countPaths(final T start, final T end) {
+        requireTopologicalOrder();
+        return countPathsTo(id(end), topologicalIndex[id(start)])[id(start)];
+    }
+
+    // Paths into end from every node whose topological index is at least from
+    private long[] countPathsTo(final int end, final int from) {
+        final int[] order = requireTopologicalOrder();
+        final long[] paths = new long[nodes.size()];
+        paths[end] = 1;
+        // Only nodes before end in topological order can reach it
+        for (int i = topologicalIndex[end] - 1; i >= from; i--) {
+            final int v = order[i];
+            long sum = 0;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                sum += paths[targets[e]];
+            }
+            paths[v] = sum;
         }
-        memo.put(current, paths);
         return paths;
     }
 
-    private static final class Node<T> {
-        final T data;
-        final Set<Node<T>> neighbors = new HashSet<>();
-
-        Node(T data) {
-            this.data = data;
+    /**
+     * Counts the paths from start to end that pass through every waypoint, in any order. Sweeps the topological order
+     * once, keeping per node the path counts for each subset of waypoints still to be visited (a bitmask).
+     */
+    public long countPathsVisiting(final T start, final T end, final Collection<T> waypoints) {
+        final int[] order = requireTopologicalOrder();
+        final int k = waypoints.size();
+        if (k > MAX_WAYPOINTS) {
+            throw new IllegalArgumentException("At most %s waypoints are supported".formatted(MAX_WAYPOINTS));
+        }
+        final int masks = 1 << k;
+        final int[] waypointBit = new int[nodes.size()];
+        int bit = 1;
+        for (final T waypoint : waypoints) {
+            waypointBit[id(waypoint)] |= bit;
+            bit <<= 1;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof Node<?> node)) {
-                return false;
+        final int startId = id(start);
+        final int endId = id(end);
+        // paths[v * masks + m]: paths from v to end that visit every waypoint in m
+        final long[] paths = new long[nodes.size() * masks];
+        for (int m = 0; m < masks; m++) {
+            paths[endId * masks + m] = (m & ~waypointBit[endId]) == 0 ? 1 : 0;
+        }
+        for (int i = topologicalIndex[endId] - 1; i >= topologicalIndex[startId]; i--) {
+            final int v = order[i];
+            for (int m = 0; m < masks; m++) {
+                final int remaining = m & ~waypointBit[v];
+                long sum = 0;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    sum += paths[targets[e] * masks + remaining];
+                }
+                paths[v * masks + m] = sum;
             }
-            return data.equals(node.data);
         }
+        return paths[startId * masks + masks - 1];
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int id(final T node) {
+        final Integer id = ids.get(node);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown node %s".formatted(node));
+        }
+        return id;
+    }
+
+    public T node(final int id) {
+        return nodes.get(id);
+    }
+
+    public boolean isAcyclic() {
+        return topologicalOrder != null;
+    }
 
-        @Override
-        public int hashCode() {
-            return data.hashCode();
+    private int[] requireTopologicalOrder() {
+        if (topologicalOrder == null) {
+            throw new IllegalStateException("Graph has a cycle");
         }
+        return topologicalOrder;
     }
 
 }
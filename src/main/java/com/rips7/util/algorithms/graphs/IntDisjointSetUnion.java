@@ -0,0 +1,102 @@
+package com.rips7.util.algorithms.graphs;
+
+/**
+ * Disjoint set union over the elements 0..n-1, with union by size and iterative path halving.
+ */
+@SuppressWarnings("unused")
+public class IntDisjointSetUnion {
+    private final int[] parent;
+    private final int[] size;
+    private int components;
+
+    public IntDisjointSetUnion(final int n) {
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        components = n;
+    }
+
+    public int find(final int element) {
+        int current = element;
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+        return current;
+    }
+
+    // Returns whether the two elements were in different sets
+    public boolean union(final int element1, final int element2) {
+        int root1 = find(element1);
+        int root2 = find(element2);
+
+        if (root1 == root2) {
+            return false;
+        }
+
+        if (size[root1] < size[root2]) {
+            final int temp = root1;
+            root1 = root2;
+            root2 = temp;
+        }
+
+        parent[root2] = root1;
+        size[root1] += size[root2];
+        components--;
+        return true;
+    }
+
+    public boolean connected(final int element1, final int element2) {
+        return find(element1) == find(element2);
+    }
+
+    public int componentSize(final int element) {
+        return size[find(element)];
+    }
+
+    public int componentCount() {
+        return components;
+    }
+
+    public boolean isFullyConnected() {
+        return components == 1;
+    }
+
+    public int[] componentSizes() {
+        final int[] sizes = new int[components];
+        int next = 0;
+        for (int i = 0; i < parent.length; i++) {
+            if (parent[i] == i) {
+                sizes[next++] = size[i];
+            }
+        }
+        return sizes;
+    }
+
+    // The k largest component sizes in descending order (fewer if there are fewer components)
+    public int[] topComponentSizes(final int k) {
+        final int[] top = new int[Math.min(k, components)];
+        int filled = 0;
+        for (int i = 0; i < parent.length; i++) {
+            if (parent[i] != i) {
+                continue;
+            }
+            // Insertion into a descending array of at most k entries
+            int pos = filled < top.length ? filled++ : top.length;
+            while (pos > 0 && top[pos - 1] < size[i]) {
+                if (pos < top.length) {
+                    top[pos] = top[pos - 1];
+                }
+                pos--;
+            }
+            if (pos < top.length) {
+                top[pos] = size[i];
+            }
+        }
+        return top;
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.rips7.util.algorithms.graphs;
+
+// Weight of the edge between nodes i and j of an implicit complete graph
+@FunctionalInterface
+public interface PairDistance {
+
+    long distance(int i, int j);
+}
@@ -0,0 +1,124 @@
+package com.rips7.util.algorithms.pathfinding;
+
+import com.rips7.util.Bits;
+import com.rips7.util.Util.Grid;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Scanline flood fill over a rows x cols grid of open and blocked cells. The grid can be padded with a border of open
+ * cells, so that a fill started outside the grid reaches everything connected to its edges. Whole horizontal spans are
+ * filled at once, and only the first cell of each open run above and below a span is queued.
+ */
+@SuppressWarnings("unused")
+public final class FloodFill {
+
+    private FloodFill() {}
+
+    /**
+     * The filled cells as a bitset over the padded grid, row-major with stride {@code cols + 2 * border}. Coordinates
+     * are those of the unpadded grid, so the border rows and columns are -border..-1 and rows..rows + border - 1.
+     */
+    public record Region(long[] bits, int rows, int cols, int border) {
+        public int stride() {
+            return cols + 2 * border;
+        }
+
+        public int index(final int row, final int col) {
+            return (row + border) * stride() + col + border;
+        }
+
+        public boolean isWithin(final int row, final int col) {
+            return -border <= row && row < rows + border && -border <= col && col < cols + border;
+        }
+
+        public boolean contains(final int row, final int col) {
+            return isWithin(row, col) && Bits.get(bits, index(row, col));
+        }
+
+        public int size() {
+            return Bits.cardinality(bits);
+        }
+    }
+
+    /**
+     * Fills from the start cell, which may lie in the border. Blocked cells are given as a bitset over the unpadded
+     * grid with index {@code row * cols + col}; border cells are always open.
+     */
+    public static Region fill(final long[] blocked, final int rows, final int cols, final int border,
+                              final int startRow, final int startCol) {
+        final Region region = new Region(Bits.newBitSet((rows + 2 * border) * (cols + 2 * border)), rows, cols, border);
+        if (!region.isWithin(startRow, startCol) || isBlocked(blocked, region, startRow, startCol)) {
+            return region;
+        }
+
+        final int stride = region.stride();
+        final int top = -border;
+        final int bottom = rows + border - 1;
+        final int left = -border;
+        final int right = cols + border - 1;
+        int[] seeds = new int[16];
+        int size = 0;
+        seeds[size++] = region.index(startRow, startCol);
+        while (size > 0) {
+            final int seed = seeds[--size];
+            final int row = seed / stride - border;
+            final int col = seed % stride - border;
+            if (!isOpen(blocked, region, row, col)) {
+                continue;
+            }
+            int from = col;
+            while (from > left && isOpen(blocked, region, row, from - 1)) {
+                from--;
+            }
+            int to = col;
+            while (to < right && isOpen(blocked, region, row, to + 1)) {
+                to++;
+            }
+            Bits.setRange(region.bits(), region.index(row, from), region.index(row, to) + 1);
+
+            for (int next = row - 1; next <= row + 1; next += 2) {
+                if (next < top || next > bottom) {
+                    continue;
+                }
+                boolean inRun = false;
+                for (int c = from; c <= to; c++) {
+                    final boolean open = isOpen(blocked, region, next, c);
+                    if (open && !inRun) {
+                        if (size == seeds.length) {
+                            seeds = Arrays.copyOf(seeds, size * 2);
+                        }
+                        seeds[size++] = region.index(next, c);
+                    }
+                    inRun = open;
+                }
+            }
+        }
+        return region;
+    }
+
+    public static <T> Region fill(final Grid<T> grid, final Predicate<T> blocked, final int border,
+                                  final int startRow, final int startCol) {
+        final int rows = grid.rows();
+        final int cols = grid.cols();
+        final long[] blockedBits = Bits.newBitSet(rows * cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (blocked.test(grid.get(r, c))) {
+                    Bits.set(blockedBits, r * cols + c);
+                }
+            }
+        }
+        return fill(blockedBits, rows, cols, border, startRow, startCol);
+    }
+
+    private static boolean isBlocked(final long[] blocked, final Region region, final int row, final int col) {
+        return 0 <= row && row < region.rows() && 0 <= col && col < region.cols()
+                && Bits.get(blocked, row * region.cols() + col);
+    }
+
+    private static boolean isOpen(final long[] blocked, final Region region, final int row, final int col) {
+        return !Bits.get(region.bits(), region.index(row, col)) && !isBlocked(blocked, region, row, col);
+    }
+}
@@ -0,0 +1,390 @@
+package com.rips7.util.algorithms.spatial;
+
+import com.rips7.util.algorithms.graphs.ClosestPairs;
+import com.rips7.util.algorithms.graphs.ClosestPairs.Edges;
+import com.rips7.util.algorithms.graphs.DenseMST.NearestForeign;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Static k-d tree over points given as three primitive coordinate arrays. Points are referred to by their index in
+ * those arrays. Distances are squared Euclidean; ties are broken by point index.
+ */
+@SuppressWarnings("unused")
+public class KdTree3D {
+    // closestPairs stops growing m past this multiple of its starting value, or past this many candidate pairs
+    private static final int MAX_NEIGHBOR_GROWTH = 8;
+    private static final long MAX_CANDIDATES = 1L << 24;
+
+    private final long[][] coords;
+    // order[lo..hi) is a subtree whose root is at mid = (lo + hi) >>> 1, split on axis depth % 3
+    private final int[] order;
+
+    public KdTree3D(final long[] x, final long[] y, final long[] z) {
+        if (x.length != y.length || x.length != z.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length");
+        }
+        this.coords = new long[][] {x, y, z};
+        this.order = new int[x.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        build(0, order.length, 0);
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public long distSq(final int i, final int j) {
+        return distSq(coords[0][i], coords[1][i], coords[2][i], j);
+    }
+
+    private long distSq(final long qx, final long qy, final long qz, final int j) {
+        final long dx = qx - coords[0][j];
+        final long dy = qy - coords[1][j];
+        final long dz = qz - coords[2][j];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private void build(final int lo, final int hi, final int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, coords[depth % 3]);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: afterwards order[k] holds the k-th smallest by axis, smaller ones before it and larger ones after
+    private void select(int lo, int hi, final int k, final long[] axis) {
+        while (hi > lo) {
+            final long pivot = axis[order[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (axis[order[i]] < pivot) {
+                    i++;
+                }
+                while (axis[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final int tmp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = tmp;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The k points nearest to point i (excluding i itself), closest first.
+     */
+    public int[] nearest(final int i, final int k) {
+        return nearest(coords[0][i], coords[1][i], coords[2][i], k, i);
+    }
+
+    public int[] nearest(final long qx, final long qy, final long qz, final int k) {
+        return nearest(qx, qy, qz, k, -1);
+    }
+
+    private int[] nearest(final long qx, final long qy, final long qz, final int k, final int exclude) {
+        final Neighbors neighbors = new Neighbors(Math.min(k, size()));
+        nearest(0, order.length, 0, new long[] {qx, qy, qz}, exclude, neighbors);
+        return neighbors.sorted();
+    }
+
+    private void nearest(final int lo, final int hi, final int depth, final long[] q, final int exclude,
+                         final Neighbors neighbors) {
+        if (lo >= hi || neighbors.capacity() == 0) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        final int point = order[mid];
+        if (point != exclude) {
+            neighbors.offer(point, distSq(q[0], q[1], q[2], point));
+        }
+        final int axis = depth % 3;
+        final long diff = q[axis] - coords[axis][point];
+        final boolean leftFirst = diff < 0;
+        nearest(leftFirst ? lo : mid + 1, leftFirst ? mid : hi, depth + 1, q, exclude, neighbors);
+        if (!neighbors.isFull() || diff * diff <= neighbors.worst()) {
+            nearest(leftFirst ? mid + 1 : lo, leftFirst ? hi : mid, depth + 1, q, exclude, neighbors);
+        }
+    }
+
+    /**
+     * The k closest pairs of points, ordered like {@link ClosestPairs}. Candidates come from every point's m nearest
+     * neighbours; the selection is exact once the k-th candidate is closer than every point's m-th neighbour,
+     * otherwise m doubles and the search repeats. Heavily tied or coincident points can keep that check from ever
+     * passing, so once m outgrows its cap the pairs are selected from all of them instead.
+     */
+    public Edges closestPairs(final int k) {
+        final int n = size();
+        final int wanted = (int) Math.min(k, (long) n * (n - 1) / 2);
+        if (wanted == 0) {
+            return ClosestPairs.smallest(new int[0], new int[0], 0, this::distSq);
+        }
+        int m = Math.min(n - 1, 2 * wanted / n + 1);
+        final long maxNeighbors = (long) MAX_NEIGHBOR_GROWTH * (wanted / n + 1);
+        while (true) {
+            final int neighborCount = m;
+            final int[][] neighbors = IntStream.range(0, n)
+                    .parallel()
+                    .mapToObj(i -> nearest(i, neighborCount))
+                    .toArray(int[][]::new);
+
+            // Deduplicate (i, j) and (j, i) through sorted packed keys
+            final long[] keys = new long[Math.toIntExact((long) n * m)];
+            for (int i = 0; i < n; i++) {
+                for (int e = 0; e < m; e++) {
+                    final int j = neighbors[i][e];
+                    keys[i * m + e] = ((long) Math.min(i, j) << 32) | Math.max(i, j);
+                }
+            }
+            Arrays.sort(keys);
+            final int[] u = new int[keys.length];
+            final int[] v = new int[keys.length];
+            int candidates = 0;
+            for (int e = 0; e < keys.length; e++) {
+                if (e == 0 || keys[e] != keys[e - 1]) {
+                    u[candidates] = (int) (keys[e] >>> 32);
+                    v[candidates++] = (int) keys[e];
+                }
+            }
+            final Edges edges = ClosestPairs.smallest(
+                    Arrays.copyOf(u, candidates), Arrays.copyOf(v, candidates), wanted, this::distSq);
+            if (m == n - 1) {
+                return edges;
+            }
+
+            // Any pair left out is at least as far apart as one of its endpoints' m-th neighbour
+            long bound = Long.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                bound = Math.min(bound, distSq(i, neighbors[i][m - 1]));
+            }
+            if (edges.weight()[wanted - 1] < bound) {
+                return edges;
+            }
+            m = Math.min(n - 1, 2 * m);
+            if (m > maxNeighbors || (long) n * m > MAX_CANDIDATES) {
+                return ClosestPairs.smallestParallel(n, wanted, this::distSq);
+            }
+        }
+    }
+
+    /**
+     * All points within radiusSq (inclusive) of the query point, in no particular order.
+     */
+    public int[] withinRadius(final long qx, final long qy, final long qz, final long radiusSq) {
+        final IntList found = new IntList();
+        withinRadius(0, order.length, 0, new long[] {qx, qy, qz}, radiusSq, found);
+        return found.toArray();
+    }
+
+    private void withinRadius(final int lo, final int hi, final int depth, final long[] q, final long radiusSq,
+                              final IntList found) {
+        if (lo >= hi) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        final int point = order[mid];
+        if (distSq(q[0], q[1], q[2], point) <= radiusSq) {
+            found.add(point);
+        }
+        final int axis = depth % 3;
+        final long diff = q[axis] - coords[axis][point];
+        if (diff <= 0 || diff * diff <= radiusSq) {
+            withinRadius(lo, mid, depth + 1, q, radiusSq, found);
+        }
+        if (diff >= 0 || diff * diff <= radiusSq) {
+            withinRadius(mid + 1, hi, depth + 1, q, radiusSq, found);
+        }
+    }
+
+    /**
+     * Nearest-foreign-component search for Borůvka rounds. Each round first records, per subtree, the single
+     * component it belongs to (if any), so subtrees entirely inside the query point's component are skipped.
+     */
+    public NearestForeign nearestForeign() {
+        return new NearestForeign() {
+            private int[] uniform = new int[order.length];
+
+            @Override
+            public void startRound(final int[] component) {
+                uniform = new int[order.length];
+                markUniform(0, order.length, component, uniform);
+            }
+
+            @Override
+            public int find(final int[] component, final int i) {
+                final Foreign best = new Foreign(i);
+                nearestForeign(0, order.length, 0, i, component, uniform, best);
+                return best.index;
+            }
+        };
+    }
+
+    // Returns the component shared by every point of the subtree, or -1 if they differ
+    private int markUniform(final int lo, final int hi, final int[] component, final int[] uniform) {
+        if (lo >= hi) {
+            return -2;
+        }
+        final int mid = (lo + hi) >>> 1;
+        final int left = markUniform(lo, mid, component, uniform);
+        final int right = markUniform(mid + 1, hi, component, uniform);
+        int shared = component[order[mid]];
+        if ((left != -2 && left != shared) || (right != -2 && right != shared)) {
+            shared = -1;
+        }
+        uniform[mid] = shared;
+        return shared;
+    }
+
+    private void nearestForeign(final int lo, final int hi, final int depth, final int i, final int[] component,
+                                final int[] uniform, final Foreign best) {
+        if (lo >= hi) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        if (uniform[mid] == component[i]) {
+            return;
+        }
+        final int point = order[mid];
+        if (component[point] != component[i]) {
+            best.offer(point, distSq(i, point));
+        }
+        final int axis = depth % 3;
+        final long diff = coords[axis][i] - coords[axis][point];
+        final boolean leftFirst = diff < 0;
+        nearestForeign(leftFirst ? lo : mid + 1, leftFirst ? mid : hi, depth + 1, i, component, uniform, best);
+        if (best.index == -1 || diff * diff <= best.distSq) {
+            nearestForeign(leftFirst ? mid + 1 : lo, leftFirst ? hi : mid, depth + 1, i, component, uniform, best);
+        }
+    }
+
+    // Best candidate so far, ordered like DenseMST: by distance, then by the edge's (min, max) endpoints
+    private static final class Foreign {
+        private final int from;
+        private int index = -1;
+        private long distSq;
+
+        private Foreign(final int from) {
+            this.from = from;
+        }
+
+        private void offer(final int point, final long d) {
+            if (index == -1 || d < distSq || (d == distSq && tieBreak(point) < tieBreak(index))) {
+                index = point;
+                distSq = d;
+            }
+        }
+
+        private long tieBreak(final int point) {
+            return ((long) Math.min(from, point) << 32) | Math.max(from, point);
+        }
+    }
+
+    // Bounded max-heap of (distance, index), keeping the k nearest
+    private static final class Neighbors {
+        private final int[] index;
+        private final long[] distSq;
+        private int size;
+
+        private Neighbors(final int capacity) {
+            index = new int[capacity];
+            distSq = new long[capacity];
+        }
+
+        private int capacity() {
+            return index.length;
+        }
+
+        private boolean isFull() {
+            return size == index.length;
+        }
+
+        private long worst() {
+            return distSq[0];
+        }
+
+        private boolean farther(final int a, final int b) {
+            return distSq[a] != distSq[b] ? distSq[a] > distSq[b] : index[a] > index[b];
+        }
+
+        private void offer(final int point, final long d) {
+            if (size < index.length) {
+                index[size] = point;
+                distSq[size] = d;
+                int slot = size++;
+                while (slot > 0 && farther(slot, (slot - 1) >>> 1)) {
+                    swap(slot, (slot - 1) >>> 1);
+                    slot = (slot - 1) >>> 1;
+                }
+            } else if (d < distSq[0] || (d == distSq[0] && point < index[0])) {
+                index[0] = point;
+                distSq[0] = d;
+                siftDown(0, size);
+            }
+        }
+
+        private void siftDown(int slot, final int end) {
+            while (true) {
+                final int left = 2 * slot + 1;
+                if (left >= end) {
+                    return;
+                }
+                final int right = left + 1;
+                final int larger = right < end && farther(right, left) ? right : left;
+                if (!farther(larger, slot)) {
+                    return;
+                }
+                swap(slot, larger);
+                slot = larger;
+            }
+        }
+
+        private void swap(final int a, final int b) {
+            final int ti = index[a];
+            final long td = distSq[a];
+            index[a] = index[b];
+            distSq[a] = distSq[b];
+            index[b] = ti;
+            distSq[b] = td;
+        }
+
+        private int[] sorted() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            return Arrays.copyOf(index, size);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
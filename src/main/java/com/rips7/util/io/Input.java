@@ -0,0 +1,272 @@
+package com.rips7.util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read-only, byte-oriented view of a puzzle input. Files are memory-mapped; lines and fields are views over the
+ * underlying buffer and are only decoded when asked to. Every byte is treated as one (ASCII) character.
+ * <p>
+ * Offsets are ints, so an input is limited to 2 GB; larger files can be read line by line through {@link LineReader}.
+ */
+@SuppressWarnings("unused")
+public final class Input {
+    private final ByteBuffer buffer;
+
+    private Input(final ByteBuffer buffer) {
+        this.buffer = buffer.asReadOnlyBuffer();
+    }
+
+    public static Input of(final byte[] bytes) {
+        return new Input(ByteBuffer.wrap(bytes));
+    }
+
+    public static Input of(final String input) {
+        return of(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Input ofPath(final Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("'%s' is %s bytes, over the 2 GB an Input can map; use a LineReader"
+                        .formatted(path, channel.size()));
+            }
+            return new Input(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Input ofResource(final String name) {
+        final URL url = Input.class.getResource(name);
+        if (url == null) {
+            throw new RuntimeException("No input file '%s'".formatted(name));
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return ofPath(Path.of(url.toURI()));
+            }
+            try (InputStream in = url.openStream()) {
+                return of(in.readAllBytes());
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (final URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public ByteBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    public int size() {
+        return buffer.limit();
+    }
+
+    public byte byteAt(final int index) {
+        return buffer.get(index);
+    }
+
+    public Line all() {
+        return new Line(buffer, 0, size());
+    }
+
+    public Stream<Line> lines() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new LineIterator(buffer, 0, size()), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public void forEachLine(final Consumer<Line> consumer) {
+        new LineIterator(buffer, 0, size()).forEachRemaining(consumer);
+    }
+
+    public String asString() {
+        return all().toString();
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+
+    // For readers that fill their own buffers, e.g. LineReader
+    static Line line(final ByteBuffer buffer, final int start, final int end) {
+        return new Line(buffer, start, end);
+    }
+
+    /**
+     * A window [start, end) of the input buffer.
+     */
+    public static final class Line implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        private Line(final ByteBuffer buffer, final int start, final int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        public byte byteAt(final int index) {
+            return buffer.get(start + index);
+        }
+
+        @Override
+        public Line subSequence(final int from, final int to) {
+            if (from < 0 || to > length() || from > to) {
+                throw new IndexOutOfBoundsException("[%s, %s) out of [0, %s)".formatted(from, to, length()));
+            }
+            return new Line(buffer, start + from, start + to);
+        }
+
+        public int indexOf(final char c) {
+            return indexOf(c, 0);
+        }
+
+        public int indexOf(final char c, final int from) {
+            for (int i = start + from; i < end; i++) {
+                if (buffer.get(i) == c) {
+                    return i - start;
+                }
+            }
+            return -1;
+        }
+
+        public Stream<Line> lines() {
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                    new LineIterator(buffer, start, end), Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+
+        public List<Line> fields(final char delimiter) {
+            final List<Line> fields = new ArrayList<>();
+            forEachField(delimiter, fields::add);
+            return fields;
+        }
+
+        public void forEachField(final char delimiter, final Consumer<Line> consumer) {
+            int fieldStart = start;
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) == delimiter) {
+                    consumer.accept(new Line(buffer, fieldStart, i));
+                    fieldStart = i + 1;
+                }
+            }
+            consumer.accept(new Line(buffer, fieldStart, end));
+        }
+
+        public Line trim() {
+            int from = start;
+            int to = end;
+            while (from < to && buffer.get(from) <= ' ') {
+                from++;
+            }
+            while (to > from && buffer.get(to - 1) <= ' ') {
+                to--;
+            }
+            return new Line(buffer, from, to);
+        }
+
+        public int parseInt() {
+            final long value = parseLong();
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Out of int range: '%s'".formatted(this));
+            }
+            return (int) value;
+        }
+
+        public long parseLong() {
+            int i = start;
+            final boolean negative = i < end && buffer.get(i) == '-';
+            if (negative || (i < end && buffer.get(i) == '+')) {
+                i++;
+            }
+            if (i == end) {
+                throw new NumberFormatException("Not a number: '%s'".formatted(this));
+            }
+            // Accumulated negatively, like Long.parseLong, so that Long.MIN_VALUE still fits
+            long value = 0;
+            try {
+                for (; i < end; i++) {
+                    final int digit = buffer.get(i) - '0';
+                    if (digit < 0 || digit > 9) {
+                        throw new NumberFormatException("Not a number: '%s'".formatted(this));
+                    }
+                    value = Math.subtractExact(Math.multiplyExact(value, 10), digit);
+                }
+                return negative ? value : Math.negateExact(value);
+            } catch (final ArithmeticException e) {
+                throw new NumberFormatException("Out of long range: '%s'".formatted(this));
+            }
+        }
+
+        @Override
+        public String toString() {
+            final byte[] bytes = new byte[length()];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class LineIterator implements Iterator<Line> {
+        private final ByteBuffer buffer;
+        private final int end;
+        private int position;
+
+        private LineIterator(final ByteBuffer buffer, final int start, final int end) {
+            this.buffer = buffer;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < end;
+        }
+
+        @Override
+        public Line next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final int lineStart = position;
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            position = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            return new Line(buffer, lineStart, lineEnd);
+        }
+    }
+}
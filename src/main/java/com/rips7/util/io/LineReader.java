@@ -0,0 +1,171 @@
+package com.rips7.util.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads lines from a channel through one fixed-size chunk buffer, copying each line into a single reusable line
+ * buffer, so memory stays constant however large the input is. Every returned {@link Input.Line} is a view over that
+ * buffer and is only valid until the next line is read; call {@code toString()} on lines that must be kept.
+ */
+@SuppressWarnings("unused")
+public final class LineReader implements Closeable {
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE).flip();
+    private byte[] line = new byte[256];
+    private ByteBuffer lineView = ByteBuffer.wrap(line);
+
+    private LineReader(final ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public static LineReader of(final ReadableByteChannel channel) {
+        return new LineReader(channel);
+    }
+
+    public static LineReader of(final byte[] bytes) {
+        return of(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    public static LineReader of(final Path path) {
+        try {
+            return of(FileChannel.open(path, StandardOpenOption.READ));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static LineReader ofResource(final String name) {
+        final URL url = LineReader.class.getResource(name);
+        if (url == null) {
+            throw new RuntimeException("No input file '%s'".formatted(name));
+        }
+        try {
+            return of(Channels.newChannel(url.openStream()));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The next line without its terminator ({@code \n} or {@code \r\n}), or null at the end of the input. A final
+     * terminator does not start another, empty line, matching {@link Input#lines()}.
+     */
+    public Input.Line readLine() {
+        int length = 0;
+        boolean read = false;
+        while (true) {
+            if (!chunk.hasRemaining() && !fill()) {
+                if (!read) {
+                    return null;
+                }
+                break;
+            }
+            read = true;
+            final byte[] bytes = chunk.array();
+            final int from = chunk.position();
+            final int limit = chunk.limit();
+            int to = from;
+            while (to < limit && bytes[to] != '\n') {
+                to++;
+            }
+            length = append(bytes, from, to, length);
+            if (to < limit) {
+                chunk.position(to + 1);
+                break;
+            }
+            chunk.position(limit);
+        }
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return Input.line(lineView, 0, length);
+    }
+
+    public void forEachLine(final Consumer<Input.Line> consumer) {
+        for (Input.Line next = readLine(); next != null; next = readLine()) {
+            consumer.accept(next);
+        }
+    }
+
+    // Lines are reused views, so only stateless, in-order operations are safe before copying them
+    public Stream<Input.Line> lines() {
+        final Iterator<Input.Line> iterator = new Iterator<>() {
+            private Input.Line next;
+            private boolean fetched;
+
+            @Override
+            public boolean hasNext() {
+                // Read lazily, so a line is not overwritten before the stream has handed it on
+                if (!fetched) {
+                    next = readLine();
+                    fetched = true;
+                }
+                return next != null;
+            }
+
+            @Override
+            public Input.Line next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                return next;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private int append(final byte[] bytes, final int from, final int to, final int length) {
+        final int newLength = length + to - from;
+        if (newLength > line.length) {
+            line = Arrays.copyOf(line, Math.max(newLength, line.length * 2));
+            lineView = ByteBuffer.wrap(line);
+        }
+        System.arraycopy(bytes, from, line, length, to - from);
+        return newLength;
+    }
+
+    private boolean fill() {
+        try {
+            chunk.clear();
+            int read;
+            do {
+                read = channel.read(chunk);
+            } while (read == 0);
+            chunk.flip();
+            return read > 0;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
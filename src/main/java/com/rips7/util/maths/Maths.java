@@ -1,16 +1,20 @@
 package com.rips7.util.maths;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiFunction;
+import java.util.stream.IntStream;
 
 import static com.rips7.util.Util.loop2D;
 import static com.rips7.util.Util.newGeneric2DArray;
 
 @SuppressWarnings("unused")
 public class Maths {
+    private static final int MAX_SYNDROME_BITS = 24;
 
     public record Vector2D<T>(T x, T y) {
         public static <T> Vector2D<T> of(final T x, final T y) {
@@ -88,6 +92,11 @@ public class Maths {
         return result;
     }
 
+    /**
+     * @deprecated Divides at a fixed scale without pivoting, so it is neither exact nor safe for zero pivots. Use
+     * {@link #reduceFractionFree(long[][])} for exact integer systems.
+     */
+    @Deprecated
     public static void solveGauss(final BigDecimal[][] m) {
         for (int row = 0; row < m.length; row++) {
             // 1. set c[row][row] equal to 1
@@ -108,4 +117,414 @@ public class Maths {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Minimum-weight solution of a linear system over GF(2): the fewest columns whose XOR equals target. Column j is a
+     * bit mask over at most 64 rows, and the result has bit j set if column j is used.
+     * <p>
+     * Gaussian elimination gives a particular solution and a nullspace basis, one vector per free variable. Then the
+     * cheaper of two searches runs: every solution in Gray-code order, one XOR per step (2^free), or a breadth-first
+     * search over the 2^rank syndromes the columns can reach (2^rank * n). Wide systems with few rows take the second,
+     * so the cost is about 2^min(free, rank). Every consistent system is solved; only an inconsistent one throws.
+     */
+    public static long solveMinWeightGF2(final long[] columns, final long target) {
+        final int n = columns.length;
+        if (n > Long.SIZE) {
+            throw new IllegalArgumentException("At most %s columns are supported".formatted(Long.SIZE));
+        }
+        long used = target;
+        for (final long column : columns) {
+            used |= column;
+        }
+        final int m = Long.SIZE - Long.numberOfLeadingZeros(used);
+
+        // rows[i] has bit j set if column j touches row i; the right-hand side is kept in the same order
+        final long[] rows = new long[m];
+        final boolean[] rhs = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                if ((columns[j] >>> i & 1) != 0) {
+                    rows[i] |= 1L << j;
+                }
+            }
+            rhs[i] = (target >>> i & 1) != 0;
+        }
+
+        final int[] pivotColumn = new int[m];
+        long pivots = 0;
+        int rank = 0;
+        for (int col = 0; col < n && rank < m; col++) {
+            final long bit = 1L << col;
+            int pivot = rank;
+            while (pivot < m && (rows[pivot] & bit) == 0) {
+                pivot++;
+            }
+            if (pivot == m) {
+                continue;
+            }
+            final long pivotRow = rows[pivot];
+            final boolean pivotRhs = rhs[pivot];
+            rows[pivot] = rows[rank];
+            rhs[pivot] = rhs[rank];
+            rows[rank] = pivotRow;
+            rhs[rank] = pivotRhs;
+            for (int r = 0; r < m; r++) {
+                if (r != rank && (rows[r] & bit) != 0) {
+                    rows[r] ^= pivotRow;
+                    rhs[r] ^= pivotRhs;
+                }
+            }
+            pivotColumn[rank++] = col;
+            pivots |= bit;
+        }
+        for (int r = rank; r < m; r++) {
+            if (rhs[r]) {
+                throw new IllegalStateException("No solution found");
+            }
+        }
+
+        long particular = 0;
+        for (int r = 0; r < rank; r++) {
+            if (rhs[r]) {
+                particular |= 1L << pivotColumn[r];
+            }
+        }
+        final int free = n - rank;
+
+        // Rough log2 of the work each search does, or MAX_VALUE when its table would not fit in memory
+        final int log2n = Long.SIZE - Long.numberOfLeadingZeros(n);
+        final int cosetCost = free;
+        final int syndromeCost = rank <= MAX_SYNDROME_BITS ? rank + log2n : Integer.MAX_VALUE;
+        if (syndromeCost <= cosetCost) {
+            // In the reduced system column j only touches the pivot rows r with bit j set in rows[r]
+            final int[] syndromes = new int[n];
+            int wanted = 0;
+            for (int r = 0; r < rank; r++) {
+                for (int col = 0; col < n; col++) {
+                    if ((rows[r] >>> col & 1) != 0) {
+                        syndromes[col] |= 1 << r;
+                    }
+                }
+                if (rhs[r]) {
+                    wanted |= 1 << r;
+                }
+            }
+            return minWeightBySyndrome(syndromes, rank, wanted);
+        }
+        final long[] basis = new long[free];
+        int f = 0;
+        for (int col = 0; col < n; col++) {
+            if ((pivots >>> col & 1) != 0) {
+                continue;
+            }
+            long vector = 1L << col;
+            for (int r = 0; r < rank; r++) {
+                if ((rows[r] >>> col & 1) != 0) {
+                    vector |= 1L << pivotColumn[r];
+                }
+            }
+            basis[f++] = vector;
+        }
+        return minWeightInCoset(particular, basis);
+    }
+
+    // Breadth-first search from the zero syndrome, one column per step; the first path to reach the wanted syndrome
+    // is the shortest, and a shortest path never uses a column twice
+    private static long minWeightBySyndrome(final int[] syndromes, final int bits, final int wanted) {
+        final int states = 1 << bits;
+        final byte[] via = new byte[states];
+        final boolean[] seen = new boolean[states];
+        final int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        seen[0] = true;
+        queue[tail++] = 0;
+        while (head < tail && !seen[wanted]) {
+            final int state = queue[head++];
+            for (int col = 0; col < syndromes.length; col++) {
+                final int next = state ^ syndromes[col];
+                if (!seen[next]) {
+                    seen[next] = true;
+                    via[next] = (byte) col;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        long solution = 0;
+        for (int state = wanted; state != 0; state ^= syndromes[via[state]]) {
+            solution |= 1L << via[state];
+        }
+        return solution;
+    }
+
+    // Gray code over the basis: step i flips the vector at the lowest set bit of i
+    private static long minWeightInCoset(final long particular, final long[] basis) {
+        long current = particular;
+        long best = particular;
+        for (long i = 1; i < 1L << basis.length; i++) {
+            current ^= basis[Long.numberOfTrailingZeros(i)];
+            if (Long.bitCount(current) < Long.bitCount(best)) {
+                best = current;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Reduced row echelon form of an integer matrix without fractions: every pivot equals {@code denominator}, the
+     * other entries of pivot columns are 0, and the matrix over the rationals is {@code rows / denominator}.
+     */
+    public record FractionFreeForm(long[][] rows, int rank, int[] pivotColumns, long denominator) {
+        public boolean isPivot(final int col) {
+            return Arrays.stream(pivotColumns).anyMatch(pivot -> pivot == col);
+        }
+    }
+
+    /**
+     * Fraction-free Gauss-Jordan elimination (Bareiss): each step replaces a[i][j] by
+     * {@code (pivot * a[i][j] - a[i][col] * a[r][j]) / previousPivot}, which always divides exactly, so entries stay
+     * integers bounded by minors of the input. Runs in long arithmetic and redoes the elimination with BigInteger if
+     * an intermediate product overflows. Only the final form has to fit in longs, otherwise ArithmeticException is
+     * thrown.
+     */
+    public static FractionFreeForm reduceFractionFree(final long[][] matrix) {
+        try {
+            return reduceFractionFreeExact(copy2D(matrix));
+        } catch (final ArithmeticException overflow) {
+            final BigFractionFreeForm big = reduceFractionFreeBig(matrix);
+            final long[][] rows = new long[big.rows().length][];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = Arrays.stream(big.rows()[i]).mapToLong(BigInteger::longValueExact).toArray();
+            }
+            return new FractionFreeForm(rows, big.rank(), big.pivotColumns(), big.denominator().longValueExact());
+        }
+    }
+
+    private record BigFractionFreeForm(BigInteger[][] rows, int rank, int[] pivotColumns, BigInteger denominator) {}
+
+    private static FractionFreeForm reduceFractionFreeExact(final long[][] a) {
+        final int m = a.length;
+        final int n = m == 0 ? 0 : a[0].length;
+        final int[] pivotColumns = new int[Math.min(m, n)];
+        long previous = 1;
+        int rank = 0;
+        for (int col = 0; col < n && rank < m; col++) {
+            int pivotRow = rank;
+            while (pivotRow < m && a[pivotRow][col] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == m) {
+                continue;
+            }
+            final long[] swap = a[pivotRow];
+            a[pivotRow] = a[rank];
+            a[rank] = swap;
+
+            final long pivot = a[rank][col];
+            for (int i = 0; i < m; i++) {
+                if (i == rank) {
+                    continue;
+                }
+                final long factor = a[i][col];
+                for (int j = 0; j < n; j++) {
+                    if (j != col) {
+                        a[i][j] = Math.subtractExact(Math.multiplyExact(pivot, a[i][j]),
+                                Math.multiplyExact(factor, a[rank][j])) / previous;
+                    }
+                }
+                a[i][col] = 0;
+            }
+            previous = pivot;
+            pivotColumns[rank++] = col;
+        }
+        return new FractionFreeForm(a, rank, Arrays.copyOf(pivotColumns, rank), previous);
+    }
+
+    private static BigFractionFreeForm reduceFractionFreeBig(final long[][] matrix) {
+        final int m = matrix.length;
+        final int n = m == 0 ? 0 : matrix[0].length;
+        final BigInteger[][] a = new BigInteger[m][n];
+        loop2D(m, n, (i, j) -> a[i][j] = BigInteger.valueOf(matrix[i][j]));
+        final int[] pivotColumns = new int[Math.min(m, n)];
+        BigInteger previous = BigInteger.ONE;
+        int rank = 0;
+        for (int col = 0; col < n && rank < m; col++) {
+            int pivotRow = rank;
+            while (pivotRow < m && a[pivotRow][col].signum() == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == m) {
+                continue;
+            }
+            final BigInteger[] swap = a[pivotRow];
+            a[pivotRow] = a[rank];
+            a[rank] = swap;
+
+            final BigInteger pivot = a[rank][col];
+            for (int i = 0; i < m; i++) {
+                if (i == rank) {
+                    continue;
+                }
+                final BigInteger factor = a[i][col];
+                for (int j = 0; j < n; j++) {
+                    if (j != col) {
+                        a[i][j] = pivot.multiply(a[i][j]).subtract(factor.multiply(a[rank][j])).divide(previous);
+                    }
+                }
+                a[i][col] = BigInteger.ZERO;
+            }
+            previous = pivot;
+            pivotColumns[rank++] = col;
+        }
+        return new BigFractionFreeForm(a, rank, Arrays.copyOf(pivotColumns, rank), previous);
+    }
+
+    // Never overflows: falls back to BigInteger without needing the reduced form to fit in longs
+    public static int rank(final long[][] matrix) {
+        try {
+            return reduceFractionFreeExact(copy2D(matrix)).rank();
+        } catch (final ArithmeticException overflow) {
+            return reduceFractionFreeBig(matrix).rank();
+        }
+    }
+
+    /**
+     * Integer basis of the nullspace, one primitive vector (entries with gcd 1) per free column.
+     */
+    public static long[][] nullspace(final long[][] matrix) {
+        final int n = matrix.length == 0 ? 0 : matrix[0].length;
+        final FractionFreeForm form = reduceFractionFree(matrix);
+        final List<long[]> basis = new ArrayList<>();
+        for (int free = 0; free < n; free++) {
+            if (form.isPivot(free)) {
+                continue;
+            }
+            // denominator * x_pivot + rows[r][free] * x_free = 0 for every pivot row r
+            final long[] vector = new long[n];
+            vector[free] = form.denominator();
+            for (int r = 0; r < form.rank(); r++) {
+                vector[form.pivotColumns()[r]] = -form.rows()[r][free];
+            }
+            final long divisor = Math.abs(gcd(Arrays.stream(vector).boxed().toList()));
+            for (int j = 0; j < n; j++) {
+                vector[j] /= divisor;
+            }
+            basis.add(vector);
+        }
+        return basis.toArray(long[][]::new);
+    }
+
+    /**
+     * Non-negative integer solution of {@code a x = b} with {@code x[j] <= upperBounds[j]} that minimises the sum of
+     * x, or null if there is none. The system is reduced once; then every assignment of the free variables within
+     * their bounds is tried, and each fixes the pivot variables, which must come out as integers within their bounds.
+     * The search is exponential in the number of free variables, so callers should check
+     * {@link #searchSpace(FractionFreeForm, long[])} first when that can be large.
+     */
+    public static long[] minimiseIntegerSolution(final long[][] a, final long[] b, final long[] upperBounds) {
+        return minimiseIntegerSolution(reduceAugmented(a, b), upperBounds);
+    }
+
+    public static FractionFreeForm reduceAugmented(final long[][] a, final long[] b) {
+        final long[][] augmented = new long[a.length][];
+        for (int i = 0; i < a.length; i++) {
+            augmented[i] = Arrays.copyOf(a[i], a[i].length + 1);
+            augmented[i][a[i].length] = b[i];
+        }
+        return reduceFractionFree(augmented);
+    }
+
+    // Number of free-variable assignments the search would try, saturating at Long.MAX_VALUE
+    public static long searchSpace(final FractionFreeForm augmented, final long[] upperBounds) {
+        long size = 1;
+        for (int j = 0; j < upperBounds.length; j++) {
+            if (!augmented.isPivot(j)) {
+                final long values = upperBounds[j] + 1;
+                size = size > Long.MAX_VALUE / values ? Long.MAX_VALUE : size * values;
+            }
+        }
+        return size;
+    }
+
+    public static long[] minimiseIntegerSolution(final FractionFreeForm augmented, final long[] upperBounds) {
+        final int n = upperBounds.length;
+        final int rank = augmented.rank();
+        if (rank > 0 && augmented.pivotColumns()[rank - 1] == n) {
+            // A pivot in the right-hand side column means 0 = non-zero
+            return null;
+        }
+        final int[] free = IntStream.range(0, n).filter(j -> !augmented.isPivot(j)).toArray();
+        // numerators[r] = b'[r] - sum of rows[r][f] * x[f] over the free variables assigned so far
+        final long[] numerators = new long[rank];
+        for (int r = 0; r < rank; r++) {
+            numerators[r] = augmented.rows()[r][n];
+        }
+        final IntegerSearch search = new IntegerSearch(augmented, upperBounds, free);
+        search.assign(0, numerators, 0);
+        return search.best;
+    }
+
+    private static final class IntegerSearch {
+        private final FractionFreeForm form;
+        private final long[] upperBounds;
+        private final int[] free;
+        private final long[] x;
+        private long[] best;
+        private long bestSum = Long.MAX_VALUE;
+
+        private IntegerSearch(final FractionFreeForm form, final long[] upperBounds, final int[] free) {
+            this.form = form;
+            this.upperBounds = upperBounds;
+            this.free = free;
+            this.x = new long[upperBounds.length];
+        }
+
+        private void assign(final int k, final long[] numerators, final long freeSum) {
+            if (freeSum >= bestSum) {
+                return;
+            }
+            if (k == free.length) {
+                complete(numerators, freeSum);
+                return;
+            }
+            final int f = free[k];
+            final long[] next = numerators.clone();
+            for (long value = 0; value <= upperBounds[f] && freeSum + value < bestSum; value++) {
+                x[f] = value;
+                assign(k + 1, next, freeSum + value);
+                for (int r = 0; r < next.length; r++) {
+                    next[r] = Math.subtractExact(next[r], form.rows()[r][f]);
+                }
+            }
+            x[f] = 0;
+        }
+
+        private void complete(final long[] numerators, final long freeSum) {
+            long sum = freeSum;
+            for (int r = 0; r < numerators.length; r++) {
+                if (numerators[r] % form.denominator() != 0) {
+                    return;
+                }
+                final long value = numerators[r] / form.denominator();
+                final int pivot = form.pivotColumns()[r];
+                if (value < 0 || value > upperBounds[pivot]) {
+                    return;
+                }
+                x[pivot] = value;
+                sum += value;
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = x.clone();
+            }
+        }
+    }
+
+    private static long[][] copy2D(final long[][] matrix) {
+        final long[][] copy = new long[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.rips7.day;
+
+import com.rips7.util.io.Input;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Day10Test {
+    private static final String EXAMPLE = """
+            [.##.] (3) (1,3) (2) (2,3) (0,2) (0,1) {3,5,4,7}
+            [...#.] (0,2,3,4) (2,3) (0,4) (0,1,2) (1,2,3,4) {7,5,12,7,2}
+            [.###.#] (0,1,2,3,4) (0,3,4) (0,1,2,4,5) (1,2) {10,11,11,5,10,5}
+            """;
+
+    @Test
+    void part1() {
+        final Day10 day = new Day10(1);
+        assertEquals(7L, day.part1(day.parse(Input.of(EXAMPLE))));
+    }
+
+    @Test
+    void part2SolvesEveryMachineExactly() {
+        final Day10 day = new Day10(2);
+        assertEquals(33L, day.part2(day.parse(Input.of(EXAMPLE))));
+        assertTrue(report(day).contains("(3 exact, 0 LP), 2 threads"));
+    }
+
+    // Without any room for the exact search every machine goes to the LP solver
+    @Test
+    void part2FallsBackToTheLpSolver() {
+        final Day10 day = new Day10(1, 0);
+        final List<Day10.Machine> machines = day.parse(Input.of(EXAMPLE));
+        assertEquals(33L, day.part2(machines));
+        assertTrue(report(day).contains("(0 exact, 3 LP), 1 thread "));
+    }
+
+    private static String report(final Day10 day) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer)) {
+            day.report(out);
+        }
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.rips7.util;
+
+import com.rips7.util.io.Input;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CharGridTest {
+
+    @Test
+    void readsCrLfRowsWithoutATrailingNewline() {
+        final CharGrid grid = CharGrid.of(Input.of("@.@\r\n.@.\r\n@@."), '.');
+        assertEquals(3, grid.rows());
+        assertEquals(3, grid.cols());
+        assertEquals("@.@\n.@.\n@@.", grid.toString());
+        assertEquals('.', grid.get(-1, 0));
+        assertEquals('.', grid.get(0, 3));
+    }
+
+    @Test
+    void readsTheSameGridWithATrailingNewline() {
+        assertEquals(
+                CharGrid.of(Input.of("@.@\n.@.\n@@."), '.').toString(),
+                CharGrid.of(Input.of("@.@\n.@.\n@@.\n"), '.').toString());
+    }
+
+    @Test
+    void padsShortRowsWithTheOutsideValue() {
+        final CharGrid grid = CharGrid.of(Input.of("@@@\n@\n"), 2, '.');
+        assertEquals(2, grid.rows());
+        assertEquals(3, grid.cols());
+        assertEquals("@@@\n@..", grid.toString());
+    }
+
+    @Test
+    void countsNeighboursAcrossTheBorder() {
+        final CharGrid grid = CharGrid.of(Input.of("@@\r\n@@"), '.');
+        assertEquals(3, grid.countNeighborsFull(0, 0, '@'));
+        final int[] counts = grid.countNeighborsAll(Kernel.EIGHT, '@');
+        assertEquals(3, counts[3]);
+    }
+}
@@ -0,0 +1,108 @@
+package com.rips7.util.maths;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MathsTest {
+
+    @Test
+    void minWeightGF2MatchesExhaustiveSearch() {
+        final Random random = new Random(7);
+        for (int test = 0; test < 500; test++) {
+            final int n = 1 + random.nextInt(16);
+            final int rows = 1 + random.nextInt(12);
+            final long[] columns = randomColumns(random, n, rows);
+            final long target = xorOf(columns, random.nextLong() & mask(n));
+
+            final long solution = Maths.solveMinWeightGF2(columns, target);
+            assertEquals(target, xorOf(columns, solution));
+            assertEquals(exhaustiveMinWeight(columns, target), Long.bitCount(solution));
+        }
+    }
+
+    // 60 buttons over 10 indicators: far too many free variables to enumerate, but only 2^10 reachable syndromes
+    @Test
+    void minWeightGF2SolvesWideSystemsWithFewRows() {
+        final Random random = new Random(60);
+        for (int test = 0; test < 20; test++) {
+            final long[] columns = randomColumns(random, 60, 10);
+            final long target = xorOf(columns, random.nextLong() & mask(60));
+
+            final long solution = Maths.solveMinWeightGF2(columns, target);
+            assertEquals(target, xorOf(columns, solution));
+            assertEquals(minWeightBySize(columns, target), Long.bitCount(solution));
+        }
+    }
+
+    @Test
+    void minWeightGF2UsesAllSixtyFourColumns() {
+        final long[] columns = new long[64];
+        for (int j = 0; j < columns.length; j++) {
+            columns[j] = 1L << (j % 8);
+        }
+        columns[63] = 0xFF;
+        assertEquals(1L << 63, Maths.solveMinWeightGF2(columns, 0xFF));
+    }
+
+    @Test
+    void minWeightGF2RejectsInconsistentSystems() {
+        assertThrows(IllegalStateException.class, () -> Maths.solveMinWeightGF2(new long[] {0b011, 0b110}, 0b001));
+    }
+
+    private static long[] randomColumns(final Random random, final int n, final int rows) {
+        final long[] columns = new long[n];
+        for (int j = 0; j < n; j++) {
+            columns[j] = random.nextLong() & mask(rows);
+        }
+        return columns;
+    }
+
+    private static long mask(final int bits) {
+        return bits == Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    private static long xorOf(final long[] columns, final long subset) {
+        long effect = 0;
+        for (int j = 0; j < columns.length; j++) {
+            if ((subset >>> j & 1) != 0) {
+                effect ^= columns[j];
+            }
+        }
+        return effect;
+    }
+
+    private static int exhaustiveMinWeight(final long[] columns, final long target) {
+        int best = Integer.MAX_VALUE;
+        for (long subset = 0; subset < 1L << columns.length; subset++) {
+            if (xorOf(columns, subset) == target) {
+                best = Math.min(best, Long.bitCount(subset));
+            }
+        }
+        return best;
+    }
+
+    // Tries every subset of 0, 1, 2, ... columns until one hits the target
+    private static int minWeightBySize(final long[] columns, final long target) {
+        for (int size = 0; ; size++) {
+            if (hasSubset(columns, target, size, 0)) {
+                return size;
+            }
+        }
+    }
+
+    private static boolean hasSubset(final long[] columns, final long target, final int size, final int from) {
+        if (size == 0) {
+            return target == 0;
+        }
+        for (int j = from; j <= columns.length - size; j++) {
+            if (hasSubset(columns, target ^ columns[j], size - 1, j + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}